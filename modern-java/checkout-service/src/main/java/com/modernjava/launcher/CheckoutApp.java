@@ -0,0 +1,79 @@
+package com.modernjava.launcher;
+
+import com.modernjava.domain.Card;
+import com.modernjava.domain.CardType;
+import com.modernjava.domain.CheckOutStatus;
+import com.modernjava.domain.OrderDetails;
+import com.modernjava.payment.PaymentService;
+import com.modernjava.service.CheckoutService;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs a checkout workload and reports how quickly the JVM becomes useful:
+ * <ul>
+ *   <li>time-to-first-checkout: JVM start until the first checkout completes</li>
+ *   <li>time-to-peak-throughput: JVM start until the first 100ms window that reaches
+ *   95% of the best throughput seen during the run</li>
+ * </ul>
+ * The same workload is used as the training run for the AOT cache ({@code ./gradlew :checkout-service:aotCache}).
+ *
+ * @param args optional run duration in seconds, defaults to 10
+ */
+public class CheckoutApp {
+
+    private static final Duration WINDOW = Duration.ofMillis(100);
+
+    public static void main(String[] args) {
+        var jvmStart = Instant.ofEpochMilli(ManagementFactory.getRuntimeMXBean().getStartTime());
+        var runDuration = Duration.ofSeconds(args.length > 0 ? Long.parseLong(args[0]) : 10);
+
+        var checkoutService = new CheckoutService(new PaymentService());
+        var cardTypes = CardType.values();
+
+        checkoutService.checkoutOrder(orderDetails(0, cardTypes[0]));
+        var firstCheckout = Instant.now();
+
+        List<Long> checkoutsPerWindow = new ArrayList<>();
+        List<Instant> windowEnds = new ArrayList<>();
+        var runEnd = firstCheckout.plus(runDuration);
+        long orderNumber = 1;
+        while (Instant.now().isBefore(runEnd)) {
+            var windowEnd = Instant.now().plus(WINDOW);
+            long checkouts = 0;
+            while (Instant.now().isBefore(windowEnd)) {
+                var checkOutStatus = checkoutService.checkoutOrder(
+                        orderDetails(orderNumber, cardTypes[(int) (orderNumber % cardTypes.length)]));
+                if (checkOutStatus == CheckOutStatus.SUCCESS) {
+                    checkouts++;
+                }
+                orderNumber++;
+            }
+            checkoutsPerWindow.add(checkouts);
+            windowEnds.add(windowEnd);
+        }
+
+        if (checkoutsPerWindow.isEmpty()) {
+            checkoutsPerWindow.add(1L);
+            windowEnds.add(firstCheckout);
+        }
+        var peak = checkoutsPerWindow.stream().mapToLong(Long::longValue).max().orElse(0);
+        var peakWindow = 0;
+        while (peakWindow < checkoutsPerWindow.size() - 1 && checkoutsPerWindow.get(peakWindow) < peak * 0.95) {
+            peakWindow++;
+        }
+
+        System.out.println("time-to-first-checkout  : " + Duration.between(jvmStart, firstCheckout).toMillis() + " ms");
+        System.out.println("time-to-peak-throughput : " + Duration.between(jvmStart, windowEnds.get(peakWindow)).toMillis() + " ms");
+        System.out.println("peak throughput         : " + peak * (1000 / WINDOW.toMillis()) + " checkouts/s");
+    }
+
+    private static OrderDetails orderDetails(long orderNumber, CardType cardType) {
+        var card = new Card("ABC", "7676709809809809", "4567", "09/99", cardType);
+        return new OrderDetails(String.valueOf(orderNumber), card, (orderNumber % 1000) + 0.99);
+    }
+}
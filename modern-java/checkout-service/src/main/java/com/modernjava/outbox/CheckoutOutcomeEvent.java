@@ -0,0 +1,85 @@
+package com.modernjava.outbox;
+
+import com.modernjava.domain.CardType;
+import com.modernjava.domain.CheckOutStatus;
+import com.modernjava.domain.OrderDetails;
+
+import java.time.Instant;
+
+/**
+ * The outcome of a single {@code checkoutOrder} call, as stored in the outbox file.
+ * Each event is one tab separated line; tabs, line breaks and backslashes in the order id are escaped with a backslash.
+ */
+public record CheckoutOutcomeEvent(String orderId,
+                                   CardType cardType,
+                                   double finalAmount,
+                                   CheckOutStatus checkOutStatus,
+                                   Instant decidedAt) {
+
+    public static CheckoutOutcomeEvent of(OrderDetails orderDetails, CheckOutStatus checkOutStatus) {
+        return new CheckoutOutcomeEvent(orderDetails.orderId(),
+                orderDetails.card().cardType(),
+                orderDetails.finalAmount(),
+                checkOutStatus,
+                Instant.now());
+    }
+
+    public String toLine() {
+        return escape(orderId) + "\t" + cardType + "\t" + finalAmount + "\t" + checkOutStatus + "\t" + decidedAt;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the line is not a valid event
+     */
+    public static CheckoutOutcomeEvent fromLine(String line) {
+        var fields = line.split("\t", -1);
+        if (fields.length != 5) {
+            throw new IllegalArgumentException("Expected 5 fields but found " + fields.length + " in outbox line: " + line);
+        }
+        return new CheckoutOutcomeEvent(unescape(fields[0]),
+                CardType.valueOf(fields[1]),
+                Double.parseDouble(fields[2]),
+                CheckOutStatus.valueOf(fields[3]),
+                Instant.parse(fields[4]));
+    }
+
+    private static String escape(String field) {
+        var escaped = new StringBuilder(field.length());
+        for (int i = 0; i < field.length(); i++) {
+            var c = field.charAt(i);
+            switch (c) {
+                case '\\' -> escaped.append("\\\\");
+                case '\t' -> escaped.append("\\t");
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> escaped.append("\\r");
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static String unescape(String field) {
+        if (field.indexOf('\\') < 0) {
+            return field;
+        }
+        var unescaped = new StringBuilder(field.length());
+        for (int i = 0; i < field.length(); i++) {
+            var c = field.charAt(i);
+            if (c != '\\') {
+                unescaped.append(c);
+                continue;
+            }
+            if (++i == field.length()) {
+                throw new IllegalArgumentException("Dangling escape in outbox field: " + field);
+            }
+            unescaped.append(switch (field.charAt(i)) {
+                case '\\' -> '\\';
+                case 't' -> '\t';
+                case 'n' -> '\n';
+                case 'r' -> '\r';
+                default -> throw new IllegalArgumentException("Unknown escape in outbox field: " + field);
+            });
+        }
+        return unescaped.toString();
+    }
+}
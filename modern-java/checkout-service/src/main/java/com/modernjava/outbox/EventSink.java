@@ -0,0 +1,14 @@
+package com.modernjava.outbox;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Downstream destination for outbox events.
+ * A batch counts as delivered once {@link #deliver(List)} returns without an exception;
+ * a failed batch is delivered again, so sinks must tolerate duplicates.
+ */
+public interface EventSink {
+
+    void deliver(List<CheckoutOutcomeEvent> events) throws IOException;
+}
@@ -0,0 +1,53 @@
+package com.modernjava.outbox;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Local append-only file of checkout outcomes.
+ * Appending is a single write to the OS page cache, so the checkout never waits for downstream
+ * delivery; {@link OutboxPublisher} reads the file in the background.
+ *
+ * <p>Appends are not forced to disk, so an appended event survives a crash of the process but not of
+ * the operating system or the machine. Syncing every append would put disk latency on every checkout.</p>
+ */
+public class Outbox implements AutoCloseable {
+
+    private final Path file;
+    private final FileChannel channel;
+
+    public Outbox(Path file) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, CREATE, WRITE, APPEND);
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    public void append(CheckoutOutcomeEvent event) {
+        var buffer = ByteBuffer.wrap((event.toLine() + "\n").getBytes(StandardCharsets.UTF_8));
+        try {
+            synchronized (channel) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to append to outbox " + file, e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,174 @@
+package com.modernjava.outbox;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Background publisher that delivers outbox events to an {@link EventSink} in batches.
+ * After every delivered batch the file offset is checkpointed next to the outbox file,
+ * so a restarted publisher resumes where the previous one stopped (at-least-once delivery).
+ * A line that can't be parsed is logged and moved to a {@code .rejected} file next to the outbox
+ * instead of blocking the events behind it. Lines longer than the {@value #READ_BUFFER_SIZE} byte read buffer are
+ * read with a larger buffer, allocated for that batch only.
+ */
+public class OutboxPublisher implements AutoCloseable {
+
+    private static final System.Logger LOGGER = System.getLogger(OutboxPublisher.class.getName());
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final Path outboxFile;
+    private final Path checkpointFile;
+    private final Path rejectedFile;
+    private final EventSink eventSink;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final Thread publisherThread;
+
+    private volatile boolean running = true;
+    private volatile long deliveredOffset;
+
+    public OutboxPublisher(Outbox outbox, EventSink eventSink, int batchSize, Duration pollInterval) throws IOException {
+        this.outboxFile = outbox.file();
+        this.checkpointFile = outboxFile.resolveSibling(outboxFile.getFileName() + ".offset");
+        this.rejectedFile = outboxFile.resolveSibling(outboxFile.getFileName() + ".rejected");
+        this.eventSink = eventSink;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.deliveredOffset = readCheckpoint();
+        this.publisherThread = Thread.ofVirtual().name("outbox-publisher").start(this::publish);
+    }
+
+    /**
+     * @return the outbox file offset up to which every event has been delivered
+     */
+    public long deliveredOffset() {
+        return deliveredOffset;
+    }
+
+    private void publish() {
+        while (running) {
+            try {
+                if (!publishNextBatch()) {
+                    Thread.sleep(pollInterval);
+                }
+            } catch (IOException | RuntimeException e) {
+                // sink or file unavailable, retry the same batch after the poll interval
+                LOGGER.log(System.Logger.Level.WARNING, "Unable to publish outbox batch, retrying", e);
+                sleepQuietly();
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return true if a batch was delivered
+     */
+    boolean publishNextBatch() throws IOException {
+        var events = new ArrayList<CheckoutOutcomeEvent>();
+        var rejectedLines = new ArrayList<String>();
+        long nextOffset;
+        try (var channel = FileChannel.open(outboxFile, READ)) {
+            nextOffset = readBatch(channel, events, rejectedLines);
+        }
+        if (events.isEmpty() && rejectedLines.isEmpty()) {
+            return false;
+        }
+        if (!events.isEmpty()) {
+            eventSink.deliver(events);
+        }
+        if (!rejectedLines.isEmpty()) {
+            Files.write(rejectedFile, rejectedLines, StandardCharsets.UTF_8, CREATE, APPEND);
+        }
+        writeCheckpoint(nextOffset);
+        deliveredOffset = nextOffset;
+        return true;
+    }
+
+    private long readBatch(FileChannel channel, List<CheckoutOutcomeEvent> events, List<String> rejectedLines)
+            throws IOException {
+        var buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        long offset = deliveredOffset;
+        int lines = 0;
+        while (lines < batchSize) {
+            buffer.clear();
+            if (channel.read(buffer, offset) <= 0) {
+                break;
+            }
+            buffer.flip();
+            int lineStart = 0;
+            for (int i = 0; i < buffer.limit() && lines < batchSize; i++) {
+                if (buffer.get(i) == '\n') {
+                    var line = new String(buffer.array(), lineStart, i - lineStart, StandardCharsets.UTF_8);
+                    try {
+                        events.add(CheckoutOutcomeEvent.fromLine(line));
+                    } catch (RuntimeException e) {
+                        LOGGER.log(System.Logger.Level.WARNING,
+                                "Moving malformed outbox line at offset " + (offset + lineStart) + " to " + rejectedFile, e);
+                        rejectedLines.add(line);
+                    }
+                    lines++;
+                    lineStart = i + 1;
+                }
+            }
+            if (lineStart == 0) {
+                if (offset + buffer.limit() >= channel.size()) {
+                    // only a partially written line is left
+                    break;
+                }
+                // a line longer than the buffer, read it again with a buffer large enough to hold it
+                buffer = ByteBuffer.allocate(Math.multiplyExact(buffer.capacity(), 2));
+                continue;
+            }
+            offset += lineStart;
+        }
+        return offset;
+    }
+
+    private long readCheckpoint() throws IOException {
+        if (Files.notExists(checkpointFile)) {
+            return 0;
+        }
+        return Long.parseLong(Files.readString(checkpointFile).trim());
+    }
+
+    private void writeCheckpoint(long offset) throws IOException {
+        var tempFile = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        Files.writeString(tempFile, Long.toString(offset));
+        Files.move(tempFile, checkpointFile, REPLACE_EXISTING, ATOMIC_MOVE);
+    }
+
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(pollInterval);
+        } catch (InterruptedException e) {
+            running = false;
+        }
+    }
+
+    /**
+     * Stops the publisher after the batch in flight, if any, has been delivered and checkpointed.
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            publisherThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
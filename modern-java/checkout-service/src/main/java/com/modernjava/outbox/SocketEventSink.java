@@ -0,0 +1,56 @@
+package com.modernjava.outbox;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes events as lines to a TCP socket, a local stand-in for a message broker.
+ * The connection is opened lazily and reopened after a failure.
+ */
+public class SocketEventSink implements EventSink, AutoCloseable {
+
+    private final InetSocketAddress address;
+    private Socket socket;
+    private BufferedWriter writer;
+
+    public SocketEventSink(String host, int port) {
+        this.address = new InetSocketAddress(host, port);
+    }
+
+    @Override
+    public synchronized void deliver(List<CheckoutOutcomeEvent> events) throws IOException {
+        try {
+            if (socket == null) {
+                socket = new Socket();
+                socket.connect(address, 2_000);
+                writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+            }
+            for (CheckoutOutcomeEvent event : events) {
+                writer.write(event.toLine());
+                writer.newLine();
+            }
+            writer.flush();
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // nothing left to clean up
+            }
+            socket = null;
+            writer = null;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.modernjava.payment;
+
+/**
+ * Thrown by the payment gateway for transient failures (timeouts, unavailable gateway),
+ * where the same payment may succeed if it is tried again.
+ */
+public class PaymentGatewayException extends RuntimeException {
+
+    public PaymentGatewayException(String message) {
+        super(message);
+    }
+
+    public PaymentGatewayException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
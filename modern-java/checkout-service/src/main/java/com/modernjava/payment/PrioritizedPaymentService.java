@@ -0,0 +1,148 @@
+package com.modernjava.payment;
+
+import com.modernjava.domain.CardType;
+import com.modernjava.domain.OrderDetails;
+import com.modernjava.domain.PaymentResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Priority-aware dispatcher in front of the payment gateway.
+ * At most {@code concurrency} payments reach the gateway at once; the rest wait in a queue
+ * that serves high-value orders and priority card types first.
+ *
+ * <p>Each payment is ordered by a virtual deadline: its enqueue time minus a priority credit.
+ * The credit is capped at {@code maxBoost}, so a low-priority payment is overtaken only by work
+ * that arrived less than {@code maxBoost} after it, and is never starved.</p>
+ */
+public class PrioritizedPaymentService extends PaymentService implements AutoCloseable {
+
+    private final PaymentService delegate;
+    private final Set<CardType> priorityCardTypes;
+    private final long cardTypeBoostNanos;
+    private final long boostPerAmountDecadeNanos;
+    private final long maxBoostNanos;
+
+    private final PriorityBlockingQueue<PendingPayment> queue = new PriorityBlockingQueue<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean closed;
+
+    public PrioritizedPaymentService(PaymentService delegate, int concurrency, Set<CardType> priorityCardTypes) {
+        this(delegate, concurrency, priorityCardTypes,
+                Duration.ofMillis(200), Duration.ofMillis(100), Duration.ofMillis(500));
+    }
+
+    public PrioritizedPaymentService(PaymentService delegate,
+                                     int concurrency,
+                                     Set<CardType> priorityCardTypes,
+                                     Duration cardTypeBoost,
+                                     Duration boostPerAmountDecade,
+                                     Duration maxBoost) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency must be at least 1");
+        }
+        this.delegate = delegate;
+        this.priorityCardTypes = priorityCardTypes.isEmpty()
+                ? EnumSet.noneOf(CardType.class)
+                : EnumSet.copyOf(priorityCardTypes);
+        this.cardTypeBoostNanos = cardTypeBoost.toNanos();
+        this.boostPerAmountDecadeNanos = boostPerAmountDecade.toNanos();
+        this.maxBoostNanos = maxBoost.toNanos();
+        for (int i = 0; i < concurrency; i++) {
+            workers.add(Thread.ofVirtual().name("payment-dispatcher-" + i).start(this::dispatch));
+        }
+    }
+
+    /**
+     * @throws IllegalStateException if the dispatcher is closed
+     */
+    @Override
+    public PaymentResponse makePaymentv2(OrderDetails orderDetails) {
+        if (closed) {
+            throw new IllegalStateException("payment dispatcher closed");
+        }
+        var pendingPayment = new PendingPayment(orderDetails,
+                System.nanoTime() - priorityCredit(orderDetails),
+                sequence.getAndIncrement(),
+                new CompletableFuture<>());
+        queue.add(pendingPayment);
+        // close() may have drained the queue between the check above and the add
+        if (closed && queue.remove(pendingPayment)) {
+            throw new IllegalStateException("payment dispatcher closed");
+        }
+        try {
+            return pendingPayment.response().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    public int queuedPayments() {
+        return queue.size();
+    }
+
+    long priorityCredit(OrderDetails orderDetails) {
+        var amountDecades = Math.log10(Math.max(1.0, orderDetails.finalAmount()));
+        var credit = (long) (amountDecades * boostPerAmountDecadeNanos);
+        if (priorityCardTypes.contains(orderDetails.card().cardType())) {
+            credit += cardTypeBoostNanos;
+        }
+        return Math.min(credit, maxBoostNanos);
+    }
+
+    private void dispatch() {
+        while (!Thread.currentThread().isInterrupted()) {
+            PendingPayment pendingPayment;
+            try {
+                pendingPayment = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                pendingPayment.response().complete(delegate.makePaymentv2(pendingPayment.orderDetails()));
+            } catch (RuntimeException e) {
+                pendingPayment.response().completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Stops the workers and fails every payment still waiting in the queue with an {@link IllegalStateException},
+     * like the new payments that are rejected from now on.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        workers.forEach(Thread::interrupt);
+        PendingPayment pendingPayment;
+        while ((pendingPayment = queue.poll()) != null) {
+            // not a PaymentGatewayException: a closed dispatcher is not a transient failure worth retrying
+            pendingPayment.response().completeExceptionally(
+                    new IllegalStateException("payment dispatcher closed"));
+        }
+    }
+
+    private record PendingPayment(OrderDetails orderDetails,
+                                  long virtualDeadline,
+                                  long sequence,
+                                  CompletableFuture<PaymentResponse> response) implements Comparable<PendingPayment> {
+
+        @Override
+        public int compareTo(PendingPayment other) {
+            int byDeadline = Long.compare(virtualDeadline, other.virtualDeadline);
+            return byDeadline != 0 ? byDeadline : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -1,23 +1,112 @@
 package com.modernjava.service;
 
 import com.modernjava.domain.*;
+import com.modernjava.outbox.CheckoutOutcomeEvent;
+import com.modernjava.outbox.Outbox;
+import com.modernjava.payment.PaymentGatewayException;
 import com.modernjava.payment.PaymentService;
+import com.modernjava.telemetry.CheckoutAttemptEvent;
+import com.modernjava.telemetry.PaymentCallEvent;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 public class CheckoutService {
 
+    private static final Executor VIRTUAL_THREADS = Executors.newVirtualThreadPerTaskExecutor();
+
     private final PaymentService paymentService;
+    private final RetryPolicy retryPolicy;
+    private final Outbox outbox;
 
     public CheckoutService(PaymentService paymentService) {
+        this(paymentService, RetryPolicy.defaultPolicy());
+    }
+
+    public CheckoutService(PaymentService paymentService, RetryPolicy retryPolicy) {
+        this(paymentService, retryPolicy, null);
+    }
+
+    /**
+     * @param outbox every checkout outcome is appended to it before {@code checkoutOrder} returns,
+     *               or {@code null} to not record outcomes
+     */
+    public CheckoutService(PaymentService paymentService, RetryPolicy retryPolicy, Outbox outbox) {
         this.paymentService = paymentService;
+        this.retryPolicy = retryPolicy;
+        this.outbox = outbox;
     }
 
+    /**
+     * Transient gateway failures are retried according to the {@link RetryPolicy}.
+     * The payment calls and the retry backoff run on virtual threads, see {@link #checkoutOrderAsync(OrderDetails)};
+     * the calling thread only waits for the outcome.
+     */
     public CheckOutStatus checkoutOrder(OrderDetails orderDetails){
-
-        var paymentResponse = paymentService.makePaymentv2(orderDetails);
-        if(paymentResponse.equals(PaymentResponse.SUCCESS)){
-            return CheckOutStatus.SUCCESS;
+        try {
+            return checkoutOrderAsync(orderDetails).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
         }
-        return CheckOutStatus.FAILURE;
+    }
+
+    /**
+     * Runs the checkout on virtual threads. A retry is scheduled on a delayed executor once its backoff
+     * has elapsed, so no thread sleeps through the backoff.
+     */
+    public CompletableFuture<CheckOutStatus> checkoutOrderAsync(OrderDetails orderDetails) {
+        var checkoutEvent = new CheckoutAttemptEvent();
+        checkoutEvent.begin();
+        retryPolicy.retryBudget().recordRequest();
+
+        return makePaymentWithRetries(orderDetails, 1, VIRTUAL_THREADS).thenApply(paymentResponse -> {
+            var checkOutStatus = paymentResponse.equals(PaymentResponse.SUCCESS)
+                    ? CheckOutStatus.SUCCESS
+                    : CheckOutStatus.FAILURE;
+            if (outbox != null) {
+                outbox.append(CheckoutOutcomeEvent.of(orderDetails, checkOutStatus));
+            }
+            return checkOutStatus;
+        }).whenComplete((checkOutStatus, error) ->
+                // failed checkouts, e.g. a failed outbox append, are recorded too
+                checkoutEvent.complete(orderDetails, error == null ? checkOutStatus.name() : "ERROR"));
+    }
 
+    private CompletableFuture<PaymentResponse> makePaymentWithRetries(OrderDetails orderDetails, int attempt, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> makePayment(orderDetails), executor)
+                .exceptionallyCompose(e -> {
+                    var cause = e instanceof CompletionException ? e.getCause() : e;
+                    if (!(cause instanceof PaymentGatewayException)) {
+                        return CompletableFuture.failedFuture(cause);
+                    }
+                    if (attempt >= retryPolicy.maxAttempts() || !retryPolicy.retryBudget().tryAcquireRetry()) {
+                        return CompletableFuture.completedFuture(PaymentResponse.FAILURE);
+                    }
+                    var backoff = CompletableFuture.delayedExecutor(
+                            retryPolicy.backoff(attempt).toNanos(), TimeUnit.NANOSECONDS, VIRTUAL_THREADS);
+                    return makePaymentWithRetries(orderDetails, attempt + 1, backoff);
+                });
+    }
+
+    private PaymentResponse makePayment(OrderDetails orderDetails) {
+        var paymentEvent = new PaymentCallEvent();
+        paymentEvent.begin();
+        try {
+            var paymentResponse = paymentService.makePaymentv2(orderDetails);
+            paymentEvent.complete(orderDetails, paymentResponse.name());
+            return paymentResponse;
+        } catch (PaymentGatewayException e) {
+            paymentEvent.complete(orderDetails, "GATEWAY_ERROR");
+            throw e;
+        } catch (RuntimeException e) {
+            paymentEvent.complete(orderDetails, "ERROR");
+            throw e;
+        }
     }
 }
@@ -0,0 +1,45 @@
+package com.modernjava.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Global budget that caps retries at a percentage of live traffic.
+ * Every checkout deposits {@code retryRatio} of a token and every retry withdraws a whole token,
+ * so during an outage retries stop once the balance runs out instead of multiplying the load.
+ */
+public class RetryBudget {
+
+    private static final long SCALE = 1000;
+
+    private final long depositPerRequest;
+    private final long maxBalance;
+    private final AtomicLong balance;
+
+    /**
+     * @param retryRatio  allowed retries as a fraction of requests, e.g. 0.1 for 10%
+     * @param maxRetries  upper bound on the retries that can be saved up while traffic is healthy
+     */
+    public RetryBudget(double retryRatio, int maxRetries) {
+        if (retryRatio < 0 || maxRetries < 0) {
+            throw new IllegalArgumentException("retryRatio and maxRetries must not be negative");
+        }
+        this.depositPerRequest = Math.round(retryRatio * SCALE);
+        this.maxBalance = maxRetries * SCALE;
+        this.balance = new AtomicLong(maxBalance);
+    }
+
+    public void recordRequest() {
+        balance.accumulateAndGet(depositPerRequest, (current, deposit) -> Math.min(maxBalance, current + deposit));
+    }
+
+    public boolean tryAcquireRetry() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - SCALE));
+        return true;
+    }
+}
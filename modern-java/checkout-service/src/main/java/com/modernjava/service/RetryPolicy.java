@@ -0,0 +1,52 @@
+package com.modernjava.service;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with full jitter, bounded by a shared {@link RetryBudget}.
+ *
+ * @param maxAttempts total attempts including the first one
+ * @param baseDelay   delay cap for the first retry
+ * @param maxDelay    upper bound for the delay cap of any retry
+ * @param retryBudget budget shared by every checkout using this policy
+ */
+public record RetryPolicy(int maxAttempts,
+                          Duration baseDelay,
+                          Duration maxDelay,
+                          RetryBudget retryBudget) {
+
+    // one budget for the whole process, so retries stay a fraction of all checkout traffic
+    private static final RetryBudget DEFAULT_RETRY_BUDGET = new RetryBudget(0.1, 100);
+
+    public RetryPolicy {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        }
+    }
+
+    public static RetryPolicy defaultPolicy() {
+        return new RetryPolicy(3, Duration.ofMillis(50), Duration.ofSeconds(1), DEFAULT_RETRY_BUDGET);
+    }
+
+    public static RetryPolicy noRetries() {
+        return new RetryPolicy(1, Duration.ZERO, Duration.ZERO, new RetryBudget(0, 0));
+    }
+
+    /**
+     * Full jitter: a random delay between zero and {@code min(maxDelay, baseDelay * 2^(retry - 1))}.
+     *
+     * @param retry the retry number, starting at 1
+     */
+    public Duration backoff(int retry) {
+        var baseMillis = baseDelay.toMillis();
+        var shift = Math.min(retry - 1, Long.SIZE - 1);
+        // saturate instead of shifting bits into the sign
+        var exponentialMillis = shift >= Long.numberOfLeadingZeros(baseMillis) ? Long.MAX_VALUE : baseMillis << shift;
+        var capMillis = Math.min(maxDelay.toMillis(), exponentialMillis);
+        if (capMillis <= 0) {
+            return Duration.ZERO;
+        }
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(Math.min(capMillis, Long.MAX_VALUE - 1) + 1));
+    }
+}
@@ -0,0 +1,27 @@
+package com.modernjava.telemetry;
+
+/**
+ * Coarse buckets for the order amount, so events can be grouped without
+ * recording the exact value.
+ */
+public enum AmountBucket {
+    UNDER_10(10),
+    UNDER_100(100),
+    UNDER_1000(1000),
+    OVER_1000(Double.MAX_VALUE);
+
+    private final double upperBound;
+
+    AmountBucket(double upperBound) {
+        this.upperBound = upperBound;
+    }
+
+    public static AmountBucket of(double amount) {
+        for (AmountBucket bucket : values()) {
+            if (amount < bucket.upperBound) {
+                return bucket;
+            }
+        }
+        return OVER_1000;
+    }
+}
@@ -0,0 +1,21 @@
+package com.modernjava.telemetry;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event emitted once per {@code CheckoutService.checkoutOrder} call.
+ * The event duration covers the whole checkout, including the payment call.
+ */
+@Name(CheckoutAttemptEvent.NAME)
+@Label("Checkout Attempt")
+@Category({"Modern Java", "Checkout"})
+@Description("A single checkout attempt and its outcome")
+@StackTrace(false)
+public class CheckoutAttemptEvent extends CheckoutTelemetryEvent {
+
+    public static final String NAME = "com.modernjava.CheckoutAttempt";
+}
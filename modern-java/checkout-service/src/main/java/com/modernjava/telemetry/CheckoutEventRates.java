@@ -0,0 +1,84 @@
+package com.modernjava.telemetry;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * In-process consumer of the checkout JFR events.
+ * Events are counted per "eventName/outcome" key and rolled up into per-second
+ * rates every time the {@link RecordingStream} flushes (roughly once a second).
+ *
+ * <p>Start the JVM with {@code -XX:StartFlightRecording} as well to get the same events
+ * in a recording file next to the GC and thread events.</p>
+ */
+public class CheckoutEventRates implements AutoCloseable {
+
+    private final RecordingStream recordingStream = new RecordingStream();
+    private final Consumer<Map<String, Double>> listener;
+    private final Clock clock;
+
+    // only touched from the recording stream thread
+    private final Map<String, Long> counts = new HashMap<>();
+    private Instant windowStart;
+
+    private volatile Map<String, Double> ratesPerSecond = Map.of();
+
+    public CheckoutEventRates() {
+        this(rates -> { });
+    }
+
+    public CheckoutEventRates(Consumer<Map<String, Double>> listener) {
+        this(listener, Clock.systemUTC());
+    }
+
+    CheckoutEventRates(Consumer<Map<String, Double>> listener, Clock clock) {
+        this.listener = listener;
+        this.clock = clock;
+        this.windowStart = clock.instant();
+        recordingStream.enable(CheckoutAttemptEvent.NAME);
+        recordingStream.enable(PaymentCallEvent.NAME);
+        recordingStream.setMaxAge(Duration.ofSeconds(10));
+        recordingStream.onEvent(CheckoutAttemptEvent.NAME, this::count);
+        recordingStream.onEvent(PaymentCallEvent.NAME, this::count);
+        recordingStream.onFlush(this::rollUp);
+    }
+
+    public void start() {
+        recordingStream.startAsync();
+    }
+
+    /**
+     * @return the rates of the last completed window, keyed by "eventName/outcome"
+     */
+    public Map<String, Double> ratesPerSecond() {
+        return ratesPerSecond;
+    }
+
+    private void count(RecordedEvent event) {
+        var key = event.getEventType().getName() + "/" + event.getString("outcome");
+        counts.merge(key, 1L, Long::sum);
+    }
+
+    private void rollUp() {
+        var now = clock.instant();
+        var elapsedMillis = Math.max(1, Duration.between(windowStart, now).toMillis());
+        var rates = new HashMap<String, Double>();
+        counts.forEach((key, count) -> rates.put(key, count * 1000.0 / elapsedMillis));
+        counts.clear();
+        windowStart = now;
+        ratesPerSecond = Map.copyOf(rates);
+        listener.accept(ratesPerSecond);
+    }
+
+    @Override
+    public void close() {
+        recordingStream.close();
+    }
+}
@@ -0,0 +1,36 @@
+package com.modernjava.telemetry;
+
+import com.modernjava.domain.OrderDetails;
+import jdk.jfr.Label;
+
+/**
+ * Fields and completion logic shared by the checkout JFR events.
+ */
+public abstract class CheckoutTelemetryEvent extends jdk.jfr.Event {
+
+    @Label("Order Id")
+    String orderId;
+
+    @Label("Card Type")
+    String cardType;
+
+    @Label("Amount Bucket")
+    String amountBucket;
+
+    @Label("Outcome")
+    String outcome;
+
+    /**
+     * Ends the event and commits it with the order's details, if the event is enabled.
+     */
+    public void complete(OrderDetails orderDetails, String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.orderId = orderDetails.orderId();
+            this.cardType = orderDetails.card().cardType().name();
+            this.amountBucket = AmountBucket.of(orderDetails.finalAmount()).name();
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.modernjava.telemetry;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event emitted for every call to the payment gateway.
+ */
+@Name(PaymentCallEvent.NAME)
+@Label("Payment Call")
+@Category({"Modern Java", "Checkout"})
+@Description("A single call to the payment gateway")
+@StackTrace(false)
+public class PaymentCallEvent extends CheckoutTelemetryEvent {
+
+    public static final String NAME = "com.modernjava.PaymentCall";
+}
@@ -0,0 +1,107 @@
+package com.modernjava.outbox;
+
+import com.modernjava.domain.Card;
+import com.modernjava.domain.CardType;
+import com.modernjava.domain.OrderDetails;
+import com.modernjava.payment.PaymentService;
+import com.modernjava.service.CheckoutService;
+import com.modernjava.service.RetryPolicy;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class OutboxPublisherTest {
+
+    @Test
+    void publisherResumesFromCheckpointAfterRestart() throws Exception {
+        var outboxFile = Files.createTempDirectory("outbox").resolve("checkout.outbox");
+        var delivered = new CopyOnWriteArrayList<String>();
+        EventSink sink = events -> events.forEach(event -> delivered.add(event.orderId()));
+
+        try (var outbox = new Outbox(outboxFile)) {
+            var checkoutService = new CheckoutService(new PaymentService(), RetryPolicy.noRetries(), outbox);
+            checkoutService.checkoutOrder(orderDetails("1"));
+            checkoutService.checkoutOrder(orderDetails("2"));
+            checkoutService.checkoutOrder(orderDetails("3"));
+
+            var publisher = new OutboxPublisher(outbox, sink, 2, Duration.ofMillis(5));
+            awaitDelivered(delivered, 3);
+            publisher.close();
+
+            checkoutService.checkoutOrder(orderDetails("4"));
+            var restartedPublisher = new OutboxPublisher(outbox, sink, 2, Duration.ofMillis(5));
+            awaitDelivered(delivered, 4);
+            restartedPublisher.close();
+
+            assertEquals(Files.size(outboxFile), restartedPublisher.deliveredOffset());
+        }
+
+        assertEquals(List.of("1", "2", "3", "4"), delivered);
+    }
+
+    @Test
+    void publisherQuarantinesMalformedLines() throws Exception {
+        var outboxFile = Files.createTempDirectory("outbox").resolve("checkout.outbox");
+        var delivered = new CopyOnWriteArrayList<String>();
+        EventSink sink = events -> events.forEach(event -> delivered.add(event.orderId()));
+
+        try (var outbox = new Outbox(outboxFile)) {
+            var checkoutService = new CheckoutService(new PaymentService(), RetryPolicy.noRetries(), outbox);
+            checkoutService.checkoutOrder(orderDetails("tab\tand\nnewline"));
+            Files.writeString(outboxFile, "not an event\n", StandardOpenOption.APPEND);
+            checkoutService.checkoutOrder(orderDetails("2"));
+
+            var publisher = new OutboxPublisher(outbox, sink, 10, Duration.ofMillis(5));
+            awaitDelivered(delivered, 2);
+            publisher.close();
+        }
+
+        assertEquals(List.of("tab\tand\nnewline", "2"), delivered);
+        assertEquals(List.of("not an event"), Files.readAllLines(outboxFile.resolveSibling("checkout.outbox.rejected")));
+    }
+
+    @Test
+    void publisherDeliversLinesLongerThanTheReadBuffer() throws Exception {
+        var outboxFile = Files.createTempDirectory("outbox").resolve("checkout.outbox");
+        var delivered = new CopyOnWriteArrayList<String>();
+        EventSink sink = events -> events.forEach(event -> delivered.add(event.orderId()));
+        var longOrderId = "x".repeat(200 * 1024);
+
+        try (var outbox = new Outbox(outboxFile)) {
+            var checkoutService = new CheckoutService(new PaymentService(), RetryPolicy.noRetries(), outbox);
+            checkoutService.checkoutOrder(orderDetails("1"));
+            checkoutService.checkoutOrder(orderDetails(longOrderId));
+            checkoutService.checkoutOrder(orderDetails("3"));
+
+            var publisher = new OutboxPublisher(outbox, sink, 10, Duration.ofMillis(5));
+            awaitDelivered(delivered, 3);
+            publisher.close();
+
+            assertEquals(Files.size(outboxFile), publisher.deliveredOffset());
+        }
+
+        assertEquals(List.of("1", longOrderId, "3"), delivered);
+    }
+
+    private static void awaitDelivered(List<String> delivered, int count) throws InterruptedException {
+        var deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (delivered.size() < count) {
+            if (System.nanoTime() - deadline > 0) {
+                fail("expected " + count + " delivered events but was " + delivered.size());
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private static OrderDetails orderDetails(String orderId) {
+        var card = new Card("ABC", "7676709809809809", "4567", "09/99", CardType.CREDIT);
+        return new OrderDetails(orderId, card, 99.0);
+    }
+}
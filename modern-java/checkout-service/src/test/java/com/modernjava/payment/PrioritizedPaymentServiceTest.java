@@ -0,0 +1,150 @@
+package com.modernjava.payment;
+
+import com.modernjava.domain.Card;
+import com.modernjava.domain.CardType;
+import com.modernjava.domain.CheckOutStatus;
+import com.modernjava.domain.OrderDetails;
+import com.modernjava.domain.PaymentResponse;
+import com.modernjava.service.CheckoutService;
+import com.modernjava.service.RetryBudget;
+import com.modernjava.service.RetryPolicy;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class PrioritizedPaymentServiceTest {
+
+    @Test
+    void makePaymentv2_servesHighValueOrdersFirst() throws InterruptedException {
+        var gatewayEntered = new CountDownLatch(1);
+        var gatewayBlocked = new CountDownLatch(1);
+        var servedOrders = new CopyOnWriteArrayList<String>();
+        var gateway = new PaymentService() {
+            @Override
+            public PaymentResponse makePaymentv2(OrderDetails orderDetails) {
+                gatewayEntered.countDown();
+                try {
+                    gatewayBlocked.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                servedOrders.add(orderDetails.orderId());
+                return PaymentResponse.SUCCESS;
+            }
+        };
+
+        try (var paymentService = new PrioritizedPaymentService(gateway, 1, Set.of(CardType.REWARDS))) {
+            var first = CompletableFuture.runAsync(() -> paymentService.makePaymentv2(orderDetails("first", CardType.DEBIT, 10.0)));
+            gatewayEntered.await();
+            var low = CompletableFuture.runAsync(() -> paymentService.makePaymentv2(orderDetails("low", CardType.DEBIT, 5.0)));
+            awaitQueued(paymentService, 1);
+            var high = CompletableFuture.runAsync(() -> paymentService.makePaymentv2(orderDetails("high", CardType.REWARDS, 5000.0)));
+            awaitQueued(paymentService, 2);
+
+            gatewayBlocked.countDown();
+            CompletableFuture.allOf(first, low, high).join();
+        }
+
+        assertEquals(List.of("first", "high", "low"), servedOrders);
+    }
+
+    @Test
+    void close_failsQueuedPaymentsAndRejectsNewOnes() throws InterruptedException {
+        var gatewayEntered = new CountDownLatch(1);
+        var gatewayBlocked = new CountDownLatch(1);
+        var gateway = new PaymentService() {
+            @Override
+            public PaymentResponse makePaymentv2(OrderDetails orderDetails) {
+                gatewayEntered.countDown();
+                try {
+                    gatewayBlocked.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return PaymentResponse.SUCCESS;
+            }
+        };
+
+        var paymentService = new PrioritizedPaymentService(gateway, 1, Set.of());
+        var first = CompletableFuture.supplyAsync(() -> paymentService.makePaymentv2(orderDetails("first", CardType.DEBIT, 10.0)));
+        gatewayEntered.await();
+        var queued = CompletableFuture.supplyAsync(() -> paymentService.makePaymentv2(orderDetails("queued", CardType.DEBIT, 10.0)));
+        awaitQueued(paymentService, 1);
+
+        paymentService.close();
+        gatewayBlocked.countDown();
+
+        assertEquals(PaymentResponse.SUCCESS, first.join());
+        var failure = assertThrows(CompletionException.class, queued::join);
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+        assertThrows(IllegalStateException.class,
+                () -> paymentService.makePaymentv2(orderDetails("late", CardType.DEBIT, 10.0)));
+    }
+
+    @Test
+    void close_doesNotRetryDrainedPayments() throws InterruptedException {
+        var gatewayEntered = new CountDownLatch(1);
+        var gatewayBlocked = new CountDownLatch(1);
+        var gatewayCalls = new AtomicInteger();
+        var gateway = new PaymentService() {
+            @Override
+            public PaymentResponse makePaymentv2(OrderDetails orderDetails) {
+                gatewayCalls.incrementAndGet();
+                gatewayEntered.countDown();
+                try {
+                    gatewayBlocked.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return PaymentResponse.SUCCESS;
+            }
+        };
+        var retryBudget = new RetryBudget(0, 1);
+        var retryPolicy = new RetryPolicy(3, Duration.ofMillis(1), Duration.ofMillis(5), retryBudget);
+
+        var paymentService = new PrioritizedPaymentService(gateway, 1, Set.of());
+        var checkoutService = new CheckoutService(paymentService, retryPolicy);
+        var first = checkoutService.checkoutOrderAsync(orderDetails("first", CardType.DEBIT, 10.0));
+        gatewayEntered.await();
+        var queued = checkoutService.checkoutOrderAsync(orderDetails("queued", CardType.DEBIT, 10.0));
+        awaitQueued(paymentService, 1);
+
+        paymentService.close();
+        gatewayBlocked.countDown();
+
+        assertEquals(CheckOutStatus.SUCCESS, first.join());
+        var failure = assertThrows(CompletionException.class, queued::join);
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+        assertEquals(1, gatewayCalls.get());
+        // the saved up retry is still there
+        assertTrue(retryBudget.tryAcquireRetry());
+    }
+
+    private static void awaitQueued(PrioritizedPaymentService paymentService, int queued) throws InterruptedException {
+        var deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (paymentService.queuedPayments() != queued) {
+            if (System.nanoTime() - deadline > 0) {
+                fail("expected " + queued + " queued payments but was " + paymentService.queuedPayments());
+            }
+            Thread.sleep(1);
+        }
+    }
+
+    private static OrderDetails orderDetails(String orderId, CardType cardType, double amount) {
+        var card = new Card("ABC", "7676709809809809", "4567", "09/99", cardType);
+        return new OrderDetails(orderId, card, amount);
+    }
+}
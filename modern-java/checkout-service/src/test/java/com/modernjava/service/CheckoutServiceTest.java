@@ -4,13 +4,25 @@ import com.modernjava.domain.Card;
 import com.modernjava.domain.CardType;
 import com.modernjava.domain.CheckOutStatus;
 import com.modernjava.domain.OrderDetails;
+import com.modernjava.domain.PaymentResponse;
+import com.modernjava.payment.PaymentGatewayException;
 import com.modernjava.payment.PaymentService;
+import com.modernjava.telemetry.CheckoutAttemptEvent;
+import com.modernjava.telemetry.PaymentCallEvent;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class CheckoutServiceTest {
 
@@ -18,6 +30,122 @@ public class CheckoutServiceTest {
     PaymentService paymentService = new PaymentService();
     CheckoutService checkoutService = new CheckoutService(paymentService);
 
+    @ParameterizedTest
+    @EnumSource(CardType.class)
+    void checkoutOrder(CardType cardType) {
+
+        var checkOutStatus = checkoutService.checkoutOrder(orderDetails(cardType));
+
+        assertEquals(CheckOutStatus.SUCCESS, checkOutStatus);
+    }
+
+    @Test
+    void checkoutOrder_emitsJfrEvents() {
+        var events = new CopyOnWriteArrayList<RecordedEvent>();
+        var attempts = new AtomicInteger();
+        var flakyPaymentService = new PaymentService() {
+            @Override
+            public PaymentResponse makePaymentv2(OrderDetails orderDetails) {
+                if (attempts.incrementAndGet() == 1) {
+                    throw new PaymentGatewayException("gateway timeout");
+                }
+                return PaymentResponse.SUCCESS;
+            }
+        };
+        var retryPolicy = new RetryPolicy(3, Duration.ofMillis(1), Duration.ofMillis(5), new RetryBudget(0.1, 10));
+
+        try (var recordingStream = new RecordingStream()) {
+            recordingStream.enable(CheckoutAttemptEvent.NAME);
+            recordingStream.enable(PaymentCallEvent.NAME);
+            recordingStream.onEvent(CheckoutAttemptEvent.NAME, events::add);
+            recordingStream.onEvent(PaymentCallEvent.NAME, events::add);
+            recordingStream.startAsync();
+
+            new CheckoutService(flakyPaymentService, retryPolicy).checkoutOrder(orderDetails(CardType.REWARDS));
+            recordingStream.stop();
+        }
+
+        var payments = events.stream().filter(event -> event.getEventType().getName().equals(PaymentCallEvent.NAME)).toList();
+        var checkouts = events.stream().filter(event -> event.getEventType().getName().equals(CheckoutAttemptEvent.NAME)).toList();
+        assertEquals(List.of("GATEWAY_ERROR", "SUCCESS"), payments.stream().map(event -> event.getString("outcome")).toList());
+        assertEquals(1, checkouts.size());
+        var checkout = checkouts.getFirst();
+        assertEquals("1234", checkout.getString("orderId"));
+        assertEquals("REWARDS", checkout.getString("cardType"));
+        assertEquals("SUCCESS", checkout.getString("outcome"));
+        assertEquals("UNDER_100", checkout.getString("amountBucket"));
+    }
+
+    @Test
+    void checkoutOrder_emitsJfrEventsForFailedCheckouts() {
+        var events = new CopyOnWriteArrayList<RecordedEvent>();
+        var brokenPaymentService = new PaymentService() {
+            @Override
+            public PaymentResponse makePaymentv2(OrderDetails orderDetails) {
+                throw new IllegalStateException("payment dispatcher closed");
+            }
+        };
+
+        try (var recordingStream = new RecordingStream()) {
+            recordingStream.enable(CheckoutAttemptEvent.NAME);
+            recordingStream.enable(PaymentCallEvent.NAME);
+            recordingStream.onEvent(CheckoutAttemptEvent.NAME, events::add);
+            recordingStream.onEvent(PaymentCallEvent.NAME, events::add);
+            recordingStream.startAsync();
+
+            var checkoutService = new CheckoutService(brokenPaymentService, RetryPolicy.noRetries());
+            assertThrows(IllegalStateException.class, () -> checkoutService.checkoutOrder(orderDetails(CardType.DEBIT)));
+            recordingStream.stop();
+        }
+
+        var outcomes = events.stream()
+                .map(event -> event.getEventType().getName() + "/" + event.getString("outcome"))
+                .sorted()
+                .toList();
+        assertEquals(List.of(CheckoutAttemptEvent.NAME + "/ERROR", PaymentCallEvent.NAME + "/ERROR"), outcomes);
+    }
+
+    @Test
+    void checkoutOrder_retriesTransientFailures() {
+        var attempts = new AtomicInteger();
+        var flakyPaymentService = new PaymentService() {
+            @Override
+            public PaymentResponse makePaymentv2(OrderDetails orderDetails) {
+                if (attempts.incrementAndGet() < 3) {
+                    throw new PaymentGatewayException("gateway timeout");
+                }
+                return PaymentResponse.SUCCESS;
+            }
+        };
+        var retryPolicy = new RetryPolicy(3, Duration.ofMillis(1), Duration.ofMillis(5), new RetryBudget(0.1, 10));
+
+        var checkOutStatus = new CheckoutService(flakyPaymentService, retryPolicy)
+                .checkoutOrderAsync(orderDetails(CardType.CREDIT))
+                .join();
+
+        assertEquals(CheckOutStatus.SUCCESS, checkOutStatus);
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void checkoutOrder_stopsRetryingWhenBudgetIsExhausted() {
+        var attempts = new AtomicInteger();
+        var failingPaymentService = new PaymentService() {
+            @Override
+            public PaymentResponse makePaymentv2(OrderDetails orderDetails) {
+                attempts.incrementAndGet();
+                throw new PaymentGatewayException("gateway down");
+            }
+        };
+        var retryPolicy = new RetryPolicy(5, Duration.ofMillis(1), Duration.ofMillis(5), new RetryBudget(0.1, 1));
+
+        var checkOutStatus = new CheckoutService(failingPaymentService, retryPolicy)
+                .checkoutOrder(orderDetails(CardType.DEBIT));
+
+        assertEquals(CheckOutStatus.FAILURE, checkOutStatus);
+        assertEquals(2, attempts.get());
+    }
+
     static OrderDetails orderDetails(CardType cardType) {
 
         var card = new Card("ABC", "7676709809809809",
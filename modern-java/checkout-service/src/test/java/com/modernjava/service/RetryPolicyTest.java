@@ -0,0 +1,28 @@
+package com.modernjava.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetryPolicyTest {
+
+    @Test
+    void backoff_saturatesAtMaxDelay() {
+        var maxDelay = Duration.of(1000, ChronoUnit.DAYS);
+        var retryPolicy = new RetryPolicy(100, Duration.ofSeconds(10), maxDelay, new RetryBudget(0.1, 10));
+
+        for (int retry = 1; retry < 100; retry++) {
+            var backoff = retryPolicy.backoff(retry);
+            assertTrue(!backoff.isNegative() && backoff.compareTo(maxDelay) <= 0, "retry " + retry + " : " + backoff);
+        }
+    }
+
+    @Test
+    void defaultPolicy_sharesOneRetryBudget() {
+        assertSame(RetryPolicy.defaultPolicy().retryBudget(), RetryPolicy.defaultPolicy().retryBudget());
+    }
+}
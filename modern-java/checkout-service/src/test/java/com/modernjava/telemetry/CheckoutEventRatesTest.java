@@ -0,0 +1,77 @@
+package com.modernjava.telemetry;
+
+import com.modernjava.domain.Card;
+import com.modernjava.domain.CardType;
+import com.modernjava.domain.OrderDetails;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CheckoutEventRatesTest {
+
+    private static final String CHECKOUT_SUCCESS = CheckoutAttemptEvent.NAME + "/SUCCESS";
+    private static final String PAYMENT_SUCCESS = PaymentCallEvent.NAME + "/SUCCESS";
+    private static final String PAYMENT_ERROR = PaymentCallEvent.NAME + "/GATEWAY_ERROR";
+
+    @Test
+    void ratesPerSecond() throws InterruptedException {
+        var card = new Card("ABC", "7676709809809809", "4567", "09/99", CardType.CREDIT);
+        var orderDetails = new OrderDetails("1234", card, 99.0);
+        // every window lasts exactly one second, so the rates of all windows add up to the event counts
+        var summedRates = new ConcurrentHashMap<String, Double>();
+        var allCounted = new CountDownLatch(1);
+
+        try (var checkoutEventRates = new CheckoutEventRates(rates -> {
+            rates.forEach((key, rate) -> summedRates.merge(key, rate, Double::sum));
+            if (summedRates.getOrDefault(CHECKOUT_SUCCESS, 0.0) >= 3) {
+                allCounted.countDown();
+            }
+        }, new OneSecondPerCallClock())) {
+            checkoutEventRates.start();
+            for (int i = 0; i < 3; i++) {
+                var paymentEvent = new PaymentCallEvent();
+                paymentEvent.begin();
+                paymentEvent.complete(orderDetails, i == 0 ? "GATEWAY_ERROR" : "SUCCESS");
+                var checkoutEvent = new CheckoutAttemptEvent();
+                checkoutEvent.begin();
+                checkoutEvent.complete(orderDetails, "SUCCESS");
+            }
+
+            assertTrue(allCounted.await(10, TimeUnit.SECONDS), "rates : " + summedRates);
+        }
+
+        assertEquals(Map.of(CHECKOUT_SUCCESS, 3.0, PAYMENT_SUCCESS, 2.0, PAYMENT_ERROR, 1.0), new HashMap<>(summedRates));
+    }
+
+    private static final class OneSecondPerCallClock extends Clock {
+        private Instant now = Instant.EPOCH;
+
+        @Override
+        public synchronized Instant instant() {
+            now = now.plus(Duration.ofSeconds(1));
+            return now;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.modernjava.http;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.modernjava.http.server.MoviesServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams the whole catalog from a local {@link MoviesServer} with each content coding,
+ * to weigh the bytes saved on the wire against the CPU spent inflating them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MoviesCompressionBenchmark {
+
+    @Param({"identity", "gzip", "deflate"})
+    String acceptEncoding;
+
+    @Param({"100000"})
+    int movieCount;
+
+    MoviesServer moviesServer;
+    MoviesClient moviesClient;
+
+    @Setup
+    public void setUp() throws IOException {
+        var objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+        var movies = new ArrayList<Movie>(movieCount);
+        for (int i = 0; i < movieCount; i++) {
+            movies.add(new Movie((double) i,
+                    "The Dark Knight " + i,
+                    "Christian Bale, Heath Ledger , Michael Caine",
+                    1990 + i % 30,
+                    LocalDate.of(1990 + i % 30, 1 + i % 12, 1 + i % 28)));
+        }
+        var resourceDirectory = Files.createTempDirectory("movies");
+        objectMapper.writeValue(resourceDirectory.resolve("movies.json").toFile(), movies);
+        objectMapper.writeValue(resourceDirectory.resolve("movie_by_id.json").toFile(), movies.getFirst());
+
+        moviesServer = new MoviesServer(0, resourceDirectory);
+        moviesServer.start();
+        moviesClient = new MoviesClient(moviesServer.baseUrl());
+    }
+
+    @TearDown
+    public void tearDown() {
+        moviesServer.close();
+    }
+
+    @Benchmark
+    public long retrieveAllMoviesStream() {
+        try (var movies = moviesClient.retrieveAllMoviesStream(acceptEncoding)) {
+            return movies.count();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.modernjava.http.codec;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.modernjava.http.Movie;
+import com.modernjava.http.MovieStreamParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the reflective {@link ObjectMapper} binding of {@link Movie} with {@link MovieCodec}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MovieCodecBenchmark {
+
+    @Param({"10000"})
+    int movieCount;
+
+    ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+
+    List<Movie> movies;
+    byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        movies = new ArrayList<>(movieCount);
+        for (int i = 0; i < movieCount; i++) {
+            movies.add(new Movie((double) i,
+                    "The Dark Knight " + i,
+                    "Christian Bale, Heath Ledger , Michael Caine",
+                    1990 + i % 30,
+                    LocalDate.of(1990 + i % 30, 1 + i % 12, 1 + i % 28)));
+        }
+        json = objectMapper.writeValueAsBytes(movies);
+    }
+
+    @Benchmark
+    public List<Movie> decodeWithObjectMapper() throws IOException {
+        return objectMapper.readValue(json, new TypeReference<>() { });
+    }
+
+    @Benchmark
+    public void decodeWithStreamParser(Blackhole blackhole) {
+        try (var stream = MovieStreamParser.parse(new ByteArrayInputStream(json), objectMapper)) {
+            stream.forEach(blackhole::consume);
+        }
+    }
+
+    @Benchmark
+    public List<Movie> decodeWithMovieCodec() {
+        return MovieCodec.decodeArray(json);
+    }
+
+    @Benchmark
+    public byte[] encodeWithObjectMapper() throws IOException {
+        return objectMapper.writeValueAsBytes(movies);
+    }
+
+    @Benchmark
+    public byte[] encodeWithMovieCodec() throws IOException {
+        var out = new ByteArrayOutputStream(json.length);
+        MovieCodec.encodeArray(movies, out);
+        return out.toByteArray();
+    }
+}
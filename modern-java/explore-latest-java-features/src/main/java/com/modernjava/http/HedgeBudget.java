@@ -0,0 +1,45 @@
+package com.modernjava.http;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps hedged requests at a fraction of the lookups.
+ * Every lookup deposits {@code hedgeRatio} of a token and every hedge withdraws a whole token,
+ * so when the backends are slow across the board hedging stops instead of doubling the load.
+ */
+public class HedgeBudget {
+
+    private static final long SCALE = 1000;
+
+    private final long depositPerRequest;
+    private final long maxBalance;
+    private final AtomicLong balance;
+
+    /**
+     * @param hedgeRatio allowed hedges as a fraction of requests, e.g. 0.05 for 5%
+     * @param maxHedges  upper bound on the hedges that can be saved up
+     */
+    public HedgeBudget(double hedgeRatio, int maxHedges) {
+        if (hedgeRatio < 0 || maxHedges < 0) {
+            throw new IllegalArgumentException("hedgeRatio and maxHedges must not be negative");
+        }
+        this.depositPerRequest = Math.round(hedgeRatio * SCALE);
+        this.maxBalance = maxHedges * SCALE;
+        this.balance = new AtomicLong(maxBalance);
+    }
+
+    public void recordRequest() {
+        balance.accumulateAndGet(depositPerRequest, (current, deposit) -> Math.min(maxBalance, current + deposit));
+    }
+
+    public boolean tryAcquireHedge() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - SCALE));
+        return true;
+    }
+}
@@ -0,0 +1,33 @@
+package com.modernjava.http;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * When a movie lookup has not answered within the {@code percentile} latency observed so far,
+ * the same request is sent to the next replica and the first response wins.
+ *
+ * @param replicaBaseUrls base URLs of the replicas, used round-robin for hedges
+ * @param percentile      latency percentile after which to hedge, e.g. 0.95
+ * @param minHedgeDelay   lower bound of the hedge delay, also used until enough latencies are recorded
+ * @param hedgeBudget     caps the extra load caused by hedges
+ */
+public record HedgePolicy(List<String> replicaBaseUrls,
+                          double percentile,
+                          Duration minHedgeDelay,
+                          HedgeBudget hedgeBudget) {
+
+    public HedgePolicy {
+        if (replicaBaseUrls.isEmpty()) {
+            throw new IllegalArgumentException("at least one replica is needed to hedge");
+        }
+        replicaBaseUrls = List.copyOf(replicaBaseUrls);
+    }
+
+    /**
+     * Hedges after p95, at most for 5% of the lookups.
+     */
+    public static HedgePolicy p95(List<String> replicaBaseUrls) {
+        return new HedgePolicy(replicaBaseUrls, 0.95, Duration.ofMillis(10), new HedgeBudget(0.05, 50));
+    }
+}
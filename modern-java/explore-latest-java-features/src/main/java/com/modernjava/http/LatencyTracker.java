@@ -0,0 +1,49 @@
+package com.modernjava.http;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Percentile of the most recent latencies, kept in a lock-free ring buffer.
+ * The percentile is recomputed every {@link #RECOMPUTE_EVERY} samples, not on every read.
+ */
+class LatencyTracker {
+
+    static final int MIN_SAMPLES = 20;
+    private static final int CAPACITY = 1024;
+    private static final int RECOMPUTE_EVERY = 64;
+
+    private final double percentile;
+    private final AtomicLongArray samples = new AtomicLongArray(CAPACITY);
+    private final AtomicLong count = new AtomicLong();
+    private volatile long percentileNanos = -1;
+
+    LatencyTracker(double percentile) {
+        this.percentile = percentile;
+    }
+
+    void record(long latencyNanos) {
+        var n = count.getAndIncrement();
+        samples.set((int) (n % CAPACITY), latencyNanos);
+        if (n + 1 == MIN_SAMPLES || (n + 1) % RECOMPUTE_EVERY == 0) {
+            percentileNanos = compute(Math.min(n + 1, CAPACITY));
+        }
+    }
+
+    /**
+     * @return the latency percentile in nanos, or -1 until {@link #MIN_SAMPLES} latencies are recorded
+     */
+    long percentileNanos() {
+        return percentileNanos;
+    }
+
+    private long compute(long size) {
+        var sorted = new long[(int) size];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = samples.get(i);
+        }
+        Arrays.sort(sorted);
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)];
+    }
+}
@@ -0,0 +1,145 @@
+package com.modernjava.http;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Dataloader style batching of movie lookups.
+ * Every {@link #load(long)} issued within {@code batchWindow} of the first pending one is collected,
+ * and the whole batch is sent as one request to the batch endpoint; each caller's future is completed
+ * from the shared response. A logical request can call {@link #dispatch()} to send its batch
+ * right away instead of waiting for the window to close.
+ */
+public class MovieBatchLoader {
+
+    // keeps the movies_by_ids query string at a few kilobytes
+    static final int MAX_IDS_PER_REQUEST = 200;
+
+    private final Function<Collection<Long>, CompletableFuture<List<Movie>>> batchFetcher;
+    private final Executor windowTimer;
+    private final int maxBatchSize;
+
+    // guarded by this
+    private Map<Long, CompletableFuture<Movie>> pending = new LinkedHashMap<>();
+    // guarded by this, counts the dispatched batches so a window timer only closes the batch it was started for
+    private long batchGeneration;
+
+    public MovieBatchLoader(MoviesClient moviesClient, Duration batchWindow, int maxBatchSize) {
+        this(moviesClient::retrieveMoviesBatchAsync,
+                CompletableFuture.delayedExecutor(batchWindow.toNanos(), TimeUnit.NANOSECONDS),
+                maxBatchSize);
+    }
+
+    /**
+     * @param windowTimer runs the given task once the batch window has elapsed
+     */
+    MovieBatchLoader(Function<Collection<Long>, CompletableFuture<List<Movie>>> batchFetcher,
+                     Executor windowTimer,
+                     int maxBatchSize) {
+        this.batchFetcher = batchFetcher;
+        this.windowTimer = windowTimer;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public CompletableFuture<Movie> load(long movieId) {
+        CompletableFuture<Movie> movie;
+        boolean firstInBatch;
+        boolean batchFull;
+        long generation;
+        synchronized (this) {
+            firstInBatch = pending.isEmpty();
+            movie = pending.computeIfAbsent(movieId, id -> new CompletableFuture<>());
+            batchFull = pending.size() >= maxBatchSize;
+            generation = batchGeneration;
+        }
+        if (batchFull) {
+            dispatch();
+        } else if (firstInBatch) {
+            windowTimer.execute(() -> dispatch(generation));
+        }
+        return movie;
+    }
+
+    /**
+     * Sends all the pending lookups, split into requests of at most {@value #MAX_IDS_PER_REQUEST} ids.
+     */
+    public void dispatch() {
+        Map<Long, CompletableFuture<Movie>> batch;
+        synchronized (this) {
+            batch = takePending();
+        }
+        send(batch);
+    }
+
+    private void dispatch(long generation) {
+        Map<Long, CompletableFuture<Movie>> batch;
+        synchronized (this) {
+            // the batch this timer was started for has already been dispatched
+            if (generation != batchGeneration) {
+                return;
+            }
+            batch = takePending();
+        }
+        send(batch);
+    }
+
+    // must hold this
+    private Map<Long, CompletableFuture<Movie>> takePending() {
+        if (pending.isEmpty()) {
+            return Map.of();
+        }
+        var batch = pending;
+        pending = new LinkedHashMap<>();
+        batchGeneration++;
+        return batch;
+    }
+
+    private void send(Map<Long, CompletableFuture<Movie>> batch) {
+        var request = new LinkedHashMap<Long, CompletableFuture<Movie>>();
+        for (var entry : batch.entrySet()) {
+            request.put(entry.getKey(), entry.getValue());
+            if (request.size() == MAX_IDS_PER_REQUEST) {
+                sendRequest(request);
+                request = new LinkedHashMap<>();
+            }
+        }
+        if (!request.isEmpty()) {
+            sendRequest(request);
+        }
+    }
+
+    private void sendRequest(Map<Long, CompletableFuture<Movie>> request) {
+        CompletableFuture<List<Movie>> response;
+        try {
+            response = batchFetcher.apply(request.keySet());
+        } catch (RuntimeException e) {
+            // thrown before any future exists, e.g. a rejected executor: fail the callers instead of the dispatcher
+            request.values().forEach(movie -> movie.completeExceptionally(e));
+            return;
+        }
+        response.whenComplete((movies, error) -> {
+            if (error != null) {
+                var cause = error instanceof CompletionException ? error.getCause() : error;
+                request.values().forEach(movie -> movie.completeExceptionally(cause));
+                return;
+            }
+            movies.forEach(movie -> {
+                var caller = request.get(movie.movie_id().longValue());
+                if (caller != null) {
+                    caller.complete(movie);
+                }
+            });
+            request.forEach((movieId, movie) ->
+                    movie.completeExceptionally(new IOException("Movie " + movieId + " not found")));
+        });
+    }
+}
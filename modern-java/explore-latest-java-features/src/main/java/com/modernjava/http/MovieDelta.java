@@ -0,0 +1,50 @@
+package com.modernjava.http;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Changes to the movie catalog up to {@code version}.
+ * Immutable: {@code upserts} and {@code deletes} are copied on the way in, and {@link #deletes()} returns a copy.
+ *
+ * @param epoch   identifies the server instance; versions are only comparable within the same epoch
+ * @param version catalog version this delta brings the reader to
+ * @param resync  true if {@code upserts} is the whole catalog and replaces the reader's copy rather than
+ *                being merged into it, because the reader's version is unknown to the server
+ * @param upserts movies added or changed, in their latest state
+ * @param deletes ids of the movies removed
+ */
+public record MovieDelta(String epoch, long version, boolean resync, List<Movie> upserts, long[] deletes) {
+
+    public MovieDelta {
+        upserts = List.copyOf(upserts);
+        deletes = deletes.clone();
+    }
+
+    @Override
+    public long[] deletes() {
+        return deletes.clone();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof MovieDelta delta
+                && version == delta.version
+                && resync == delta.resync
+                && Objects.equals(epoch, delta.epoch)
+                && upserts.equals(delta.upserts)
+                && Arrays.equals(deletes, delta.deletes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(epoch, version, resync, upserts, Arrays.hashCode(deletes));
+    }
+
+    @Override
+    public String toString() {
+        return "MovieDelta[epoch=" + epoch + ", version=" + version + ", resync=" + resync
+                + ", upserts=" + upserts + ", deletes=" + Arrays.toString(deletes) + "]";
+    }
+}
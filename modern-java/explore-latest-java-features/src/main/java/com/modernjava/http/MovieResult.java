@@ -0,0 +1,15 @@
+package com.modernjava.http;
+
+/**
+ * Outcome of looking up a single movie id in a bulk request.
+ */
+public sealed interface MovieResult {
+
+    long movieId();
+
+    record Found(long movieId, Movie movie) implements MovieResult {
+    }
+
+    record Failed(long movieId, Throwable error) implements MovieResult {
+    }
+}
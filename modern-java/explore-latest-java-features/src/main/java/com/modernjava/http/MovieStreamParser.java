@@ -0,0 +1,65 @@
+package com.modernjava.http;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Parses a JSON array of movies incrementally with Jackson's streaming {@link JsonParser}.
+ * Only the movie currently being bound is held in memory, so the size of the input does not matter.
+ * The returned stream must be closed to release the underlying input stream.
+ */
+public class MovieStreamParser {
+
+    public static Stream<Movie> parse(InputStream inputStream, ObjectMapper objectMapper) {
+        JsonParser parser;
+        try {
+            parser = objectMapper.getFactory().createParser(inputStream);
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                parser.close();
+                throw new IOException("Expected a JSON array of movies");
+            }
+        } catch (IOException e) {
+            closeQuietly(inputStream);
+            throw new UncheckedIOException(e);
+        }
+
+        var spliterator = new Spliterators.AbstractSpliterator<Movie>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Movie> action) {
+                try {
+                    if (parser.nextToken() != JsonToken.START_OBJECT) {
+                        return false;
+                    }
+                    action.accept(objectMapper.readValue(parser, Movie.class));
+                    return true;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+
+        return StreamSupport.stream(spliterator, false)
+                .onClose(() -> {
+                    closeQuietly(parser);
+                    closeQuietly(inputStream);
+                });
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception ignored) {
+            // nothing useful left to do with the stream
+        }
+    }
+}
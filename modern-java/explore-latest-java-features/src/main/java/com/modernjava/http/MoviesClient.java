@@ -5,15 +5,40 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.modernjava.http.cache.DiskHttpCache;
+import com.modernjava.http.metrics.ClientMetrics;
+import com.modernjava.http.metrics.CountingInputStream;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
 
 import static java.net.http.HttpRequest.newBuilder;
 
@@ -21,6 +46,456 @@ public class MoviesClient {
 
     public static String ALL_MOVIES_URL = "http://127.0.0.1:8000/explore-latest-java-features/src/main/resources/movies.json";
     public static String MOVIE_BY_ID_URL = "http://127.0.0.1:8000/explore-latest-java-features/src/main/resources/movie_by_id.json";
+    public static String MOVIES_BY_IDS_URL = "http://127.0.0.1:8000/explore-latest-java-features/src/main/resources/movies_by_ids.json";
+    public static String MOVIES_DELTA_URL = "http://127.0.0.1:8000/explore-latest-java-features/src/main/resources/movies_delta.json";
 
+    private static final String ALL_MOVIES_ENDPOINT = "movies.json";
+    private static final String MOVIE_BY_ID_ENDPOINT = "movie_by_id.json";
+    private static final String MOVIES_BY_IDS_ENDPOINT = "movies_by_ids.json";
+    private static final String MOVIES_DELTA_ENDPOINT = "movies_delta.json";
+
+    private static final String ACCEPT_COMPRESSED = "gzip, deflate";
+    private static final int DECOMPRESSION_BUFFER_SIZE = 64 * 1024;
+
+    public static final int DEFAULT_MAX_CONCURRENCY_PER_HOST = 64;
+    public static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(5);
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(2))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+
+    private final String allMoviesUrl;
+    private final String movieByIdUrl;
+    private final String moviesByIdsUrl;
+    private final String moviesDeltaUrl;
+    private final int maxConcurrencyPerHost;
+    private final Duration requestTimeout;
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+    private final HedgePolicy hedgePolicy;
+    private final List<String> replicaMovieByIdUrls;
+    private final LatencyTracker latencyTracker;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final LongAdder hedgedRequests = new LongAdder();
+    private final ClientMetrics metrics = new ClientMetrics();
+
+    public MoviesClient() {
+        this(DEFAULT_MAX_CONCURRENCY_PER_HOST, DEFAULT_REQUEST_TIMEOUT);
+    }
+
+    /**
+     * @param maxConcurrencyPerHost maximum number of requests in flight to the same host for bulk lookups
+     * @param requestTimeout        timeout of every single request
+     */
+    public MoviesClient(int maxConcurrencyPerHost, Duration requestTimeout) {
+        this(ALL_MOVIES_URL, MOVIE_BY_ID_URL, MOVIES_BY_IDS_URL, MOVIES_DELTA_URL, maxConcurrencyPerHost, requestTimeout, null);
+    }
+
+    /**
+     * @param baseUrl the folder serving the movie endpoints, for example {@code MoviesServer.baseUrl()}
+     */
+    public MoviesClient(String baseUrl) {
+        this(baseUrl, null);
+    }
+
+    /**
+     * @param baseUrl     the folder serving the movie endpoints
+     * @param hedgePolicy replicas and limits for hedging movie lookups, or {@code null} to not hedge
+     */
+    public MoviesClient(String baseUrl, HedgePolicy hedgePolicy) {
+        this(baseUrl + "movies.json", baseUrl + "movie_by_id.json", baseUrl + "movies_by_ids.json",
+                baseUrl + "movies_delta.json",
+                DEFAULT_MAX_CONCURRENCY_PER_HOST, DEFAULT_REQUEST_TIMEOUT, hedgePolicy);
+    }
+
+    private MoviesClient(String allMoviesUrl,
+                         String movieByIdUrl,
+                         String moviesByIdsUrl,
+                         String moviesDeltaUrl,
+                         int maxConcurrencyPerHost,
+                         Duration requestTimeout,
+                         HedgePolicy hedgePolicy) {
+        this.allMoviesUrl = allMoviesUrl;
+        this.movieByIdUrl = movieByIdUrl;
+        this.moviesByIdsUrl = moviesByIdsUrl;
+        this.moviesDeltaUrl = moviesDeltaUrl;
+        this.maxConcurrencyPerHost = maxConcurrencyPerHost;
+        this.requestTimeout = requestTimeout;
+        this.hedgePolicy = hedgePolicy;
+        this.replicaMovieByIdUrls = hedgePolicy == null
+                ? List.of()
+                : hedgePolicy.replicaBaseUrls().stream().map(replica -> replica + "movie_by_id.json").toList();
+        this.latencyTracker = hedgePolicy == null ? null : new LatencyTracker(hedgePolicy.percentile());
+    }
+
+    /**
+     * Streams all the movies while the response body is still arriving.
+     * The body is consumed through {@link HttpResponse.BodySubscribers#ofInputStream()} and parsed
+     * one movie at a time, so memory stays bounded regardless of the size of the catalog.
+     * Close the returned stream (try-with-resources) to release the connection.
+     */
+    public Stream<Movie> retrieveAllMoviesStream() {
+        return retrieveAllMoviesStream(ACCEPT_COMPRESSED);
+    }
+
+    /**
+     * Streams all the movies, asking for the given content codings, for example {@code "gzip"} or
+     * {@code "identity"}. A compressed body is inflated while it is parsed, so neither the compressed
+     * nor the decompressed body is ever held in memory as a whole.
+     */
+    public Stream<Movie> retrieveAllMoviesStream(String acceptEncoding) {
+        var request = newBuilder(URI.create(allMoviesUrl))
+                .header("Accept-Encoding", acceptEncoding)
+                .GET()
+                .build();
+        var start = System.nanoTime();
+        HttpResponse<InputStream> response;
+        try {
+            response = client.send(request, responseInfo -> HttpResponse.BodySubscribers.ofInputStream());
+        } catch (IOException | InterruptedException e) {
+            metrics.recordFailure(ALL_MOVIES_ENDPOINT, System.nanoTime() - start);
+            throw new RuntimeException(e);
+        }
+        var latencyNanos = System.nanoTime() - start;
+        var body = new CountingInputStream(response.body());
+        if (response.statusCode() != 200) {
+            metrics.recordExchange(ALL_MOVIES_ENDPOINT, response, latencyNanos, 0, 0);
+            try {
+                body.close();
+                throw new IOException("Unexpected status " + response.statusCode() + " from " + allMoviesUrl);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        var decodeStart = System.nanoTime();
+        InputStream decodedBody;
+        try {
+            decodedBody = decode(body, response.headers().firstValue("Content-Encoding").orElse("identity"));
+        } catch (IOException e) {
+            // for example a corrupt gzip header: nothing else will read the body, so release the stream here
+            try {
+                body.close();
+            } catch (IOException closeFailure) {
+                e.addSuppressed(closeFailure);
+            }
+            metrics.recordExchange(ALL_MOVIES_ENDPOINT, response, latencyNanos, body.count(), System.nanoTime() - decodeStart);
+            throw new RuntimeException(e);
+        }
+        return MovieStreamParser.parse(decodedBody, objectMapper)
+                .onClose(() -> metrics.recordExchange(ALL_MOVIES_ENDPOINT, response, latencyNanos,
+                        body.count(), System.nanoTime() - decodeStart));
+    }
+
+    /**
+     * Streams all the movies through the on-disk HTTP cache.
+     * Unchanged catalogs are revalidated with a conditional request and read from the local copy.
+     */
+    public Stream<Movie> retrieveAllMovies(DiskHttpCache httpCache) {
+        try {
+            var cachedResponse = httpCache.fetch(client, URI.create(allMoviesUrl));
+            return MovieStreamParser.parse(cachedResponse.bodyAsStream(), objectMapper);
+        } catch (IOException | InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public Movie retrieveMovieById(long movieId) {
+        try {
+            return retrieveMovieByIdAsync(movieId).join();
+        } catch (CompletionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * With a {@link HedgePolicy}, a lookup that has not answered within the observed latency percentile
+     * is sent again to a replica; the first successful response wins and the other request is cancelled.
+     */
+    public CompletableFuture<Movie> retrieveMovieByIdAsync(long movieId) {
+        if (hedgePolicy != null) {
+            return retrieveMovieByIdHedged(movieId);
+        }
+        var start = System.nanoTime();
+        return sendMovieById(movieByIdUrl, movieId, start)
+                .thenApply(response -> toMovie(response, start));
+    }
+
+    /**
+     * @return the number of hedge requests sent so far
+     */
+    public long hedgedRequests() {
+        return hedgedRequests.sum();
+    }
+
+    /**
+     * @return request counts, latencies, bytes, decode time and connection reuse of every endpoint
+     */
+    public ClientMetrics metrics() {
+        return metrics;
+    }
+
+    private CompletableFuture<Movie> retrieveMovieByIdHedged(long movieId) {
+        var hedgeBudget = hedgePolicy.hedgeBudget();
+        hedgeBudget.recordRequest();
+
+        var result = new CompletableFuture<Movie>();
+        var attempts = new CopyOnWriteArrayList<CompletableFuture<HttpResponse<byte[]>>>();
+        var outstanding = new AtomicInteger(1);
+        attempts.add(sendTimed(movieByIdUrl, movieId, result, outstanding));
+
+        var hedgeDelay = Math.max(latencyTracker.percentileNanos(), hedgePolicy.minHedgeDelay().toNanos());
+        CompletableFuture.delayedExecutor(hedgeDelay, TimeUnit.NANOSECONDS).execute(() -> {
+            if (result.isDone()) {
+                return;
+            }
+            var replicaUrl = replicaMovieByIdUrls.get(Math.floorMod(nextReplica.getAndIncrement(), replicaMovieByIdUrls.size()));
+            // a hedge never waits: without a free permit for the replica host it is simply not sent
+            var permits = permitsFor(URI.create(replicaUrl));
+            if (!permits.tryAcquire()) {
+                return;
+            }
+            if (!hedgeBudget.tryAcquireHedge()) {
+                permits.release();
+                return;
+            }
+            hedgedRequests.increment();
+            outstanding.incrementAndGet();
+            var hedge = sendTimed(replicaUrl, movieId, result, outstanding);
+            hedge.whenComplete((response, failure) -> permits.release());
+            attempts.add(hedge);
+            if (result.isDone()) {
+                hedge.cancel(true);
+            }
+        });
+
+        // cancelling the future returned by sendAsync aborts the exchange of the losing request
+        result.whenComplete((movie, failure) -> attempts.forEach(attempt -> attempt.cancel(true)));
+        return result;
+    }
+
+    /**
+     * Sends one attempt of a hedged lookup. The first success completes {@code result};
+     * {@code result} fails only once every attempt sent has failed.
+     * Every attempt records its latency, including the loser, which records the time until it was cancelled:
+     * recording only winners would pull the percentile, and with it the hedge delay, ever lower.
+     */
+    private CompletableFuture<HttpResponse<byte[]>> sendTimed(String url,
+                                                             long movieId,
+                                                             CompletableFuture<Movie> result,
+                                                             AtomicInteger outstanding) {
+        var start = System.nanoTime();
+        var attempt = sendMovieById(url, movieId, start);
+        attempt.whenComplete((response, failure) -> {
+            if (failure instanceof CancellationException) {
+                latencyTracker.record(System.nanoTime() - start);
+                return;
+            }
+            if (failure == null) {
+                try {
+                    var movie = toMovie(response, start);
+                    latencyTracker.record(System.nanoTime() - start);
+                    result.complete(movie);
+                    return;
+                } catch (CompletionException e) {
+                    failure = e.getCause();
+                }
+            }
+            if (outstanding.decrementAndGet() == 0) {
+                result.completeExceptionally(failure);
+            }
+        });
+        return attempt;
+    }
+
+    private CompletableFuture<HttpResponse<byte[]>> sendMovieById(String url, long movieId, long startNanos) {
+        var request = newBuilder(URI.create(url + "?movie_id=" + movieId))
+                .timeout(requestTimeout)
+                .GET()
+                .build();
+        var response = client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+        response.whenComplete((ignored, failure) -> {
+            // a cancelled hedge is not a failure of the endpoint
+            if (failure != null && !(failure instanceof CancellationException)) {
+                metrics.recordFailure(MOVIE_BY_ID_ENDPOINT, System.nanoTime() - startNanos);
+            }
+        });
+        return response;
+    }
+
+    /**
+     * Looks up all the ids concurrently, one virtual thread per id, with at most
+     * {@code maxConcurrencyPerHost} requests in flight to the movies host.
+     * A failed lookup is reported as {@link MovieResult.Failed} and does not affect the others.
+     *
+     * @return one result per id, in the same order as {@code movieIds}
+     */
+    public List<MovieResult> retrieveMoviesByIds(Collection<Long> movieIds) {
+        var permits = permitsFor(URI.create(movieByIdUrl));
+
+        List<Future<MovieResult>> futures = new ArrayList<>(movieIds.size());
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long movieId : movieIds) {
+                futures.add(executor.submit(() -> retrieveWithPermit(movieId, permits)));
+            }
+        }
+        return futures.stream()
+                .map(Future::resultNow)
+                .toList();
+    }
+
+    /**
+     * Retrieves several movies with a single request to the batch endpoint.
+     * Ids without a movie are missing from the result.
+     */
+    public CompletableFuture<List<Movie>> retrieveMoviesBatchAsync(Collection<Long> movieIds) {
+        var ids = movieIds.stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+        var request = newBuilder(URI.create(moviesByIdsUrl + "?ids=" + ids))
+                .timeout(requestTimeout)
+                .GET()
+                .build();
+        var start = System.nanoTime();
+        var batchResponse = client.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream());
+        batchResponse.whenComplete((ignored, failure) -> {
+            if (failure != null) {
+                metrics.recordFailure(MOVIES_BY_IDS_ENDPOINT, System.nanoTime() - start);
+            }
+        });
+        return batchResponse.thenApply(response -> {
+            var latencyNanos = System.nanoTime() - start;
+            var body = new CountingInputStream(response.body());
+            var decodeStart = System.nanoTime();
+            try (body) {
+                if (response.statusCode() != 200) {
+                    throw new IOException("Unexpected status " + response.statusCode() + " from " + response.uri());
+                }
+                try (var movies = MovieStreamParser.parse(body, objectMapper)) {
+                    return movies.toList();
+                }
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            } finally {
+                metrics.recordExchange(MOVIES_BY_IDS_ENDPOINT, response, latencyNanos, body.count(), System.nanoTime() - decodeStart);
+            }
+        });
+    }
+
+    /**
+     * Retrieves the movies added, changed or deleted after {@code sinceVersion}.
+     * Version 0 returns the whole catalog as upserts; pass {@link MovieDelta#epoch()} and {@link MovieDelta#version()}
+     * of the previous delta to receive only what changed since then. If the server restarted or no longer
+     * remembers that version, the delta is a {@link MovieDelta#resync()} of the whole catalog.
+     *
+     * @param epoch epoch of the previous delta, null if unknown
+     */
+    public MovieDelta retrieveDelta(String epoch, long sinceVersion) {
+        var query = "?since=" + sinceVersion + (epoch == null ? "" : "&epoch=" + URLEncoder.encode(epoch, StandardCharsets.UTF_8));
+        var request = newBuilder(URI.create(moviesDeltaUrl + query))
+                .timeout(requestTimeout)
+                .GET()
+                .build();
+        var start = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException | InterruptedException e) {
+            metrics.recordFailure(MOVIES_DELTA_ENDPOINT, System.nanoTime() - start);
+            throw new RuntimeException(e);
+        }
+        var latencyNanos = System.nanoTime() - start;
+        var decodeStart = System.nanoTime();
+        try {
+            if (response.statusCode() != 200) {
+                throw new IOException("Unexpected status " + response.statusCode() + " from " + response.uri());
+            }
+            return objectMapper.readValue(response.body(), MovieDelta.class);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            metrics.recordExchange(MOVIES_DELTA_ENDPOINT, response, latencyNanos, response.body().length, System.nanoTime() - decodeStart);
+        }
+    }
+
+    private Semaphore permitsFor(URI uri) {
+        return hostPermits.computeIfAbsent(hostOf(uri), host -> new Semaphore(maxConcurrencyPerHost));
+    }
+
+    /**
+     * @return {@code host:port}, with the default port of the scheme when the URI has none,
+     * so {@code http://Host/} and {@code http://host:80/} share their permits
+     */
+    static String hostOf(URI uri) {
+        var port = uri.getPort();
+        if (port == -1) {
+            port = "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+        }
+        return uri.getHost().toLowerCase(Locale.ROOT) + ":" + port;
+    }
+
+    private MovieResult retrieveWithPermit(long movieId, Semaphore permits) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new MovieResult.Failed(movieId, e);
+        }
+        try {
+            return new MovieResult.Found(movieId, retrieveMovieByIdAsync(movieId).join());
+        } catch (CompletionException e) {
+            return new MovieResult.Failed(movieId, e.getCause());
+        } catch (RuntimeException e) {
+            return new MovieResult.Failed(movieId, e);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private Movie toMovie(HttpResponse<byte[]> response, long startNanos) {
+        var latencyNanos = System.nanoTime() - startNanos;
+        var decodeStart = System.nanoTime();
+        try {
+            if (response.statusCode() != 200) {
+                throw new IOException("Unexpected status " + response.statusCode() + " from " + response.uri());
+            }
+            return objectMapper.readValue(response.body(), Movie.class);
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        } finally {
+            metrics.recordExchange(MOVIE_BY_ID_ENDPOINT, response, latencyNanos, response.body().length, System.nanoTime() - decodeStart);
+        }
+    }
+
+    /**
+     * Wraps the body in a streaming decompressor for its {@code Content-Encoding}.
+     * HTTP {@code deflate} is zlib-wrapped, which is what {@link InflaterInputStream} expects.
+     * If this throws, {@code body} is left open for the caller to close.
+     */
+    private static InputStream decode(InputStream body, String contentEncoding) throws IOException {
+        return switch (contentEncoding.trim().toLowerCase(Locale.ROOT)) {
+            case "gzip", "x-gzip" -> new GZIPInputStream(body, DECOMPRESSION_BUFFER_SIZE);
+            case "deflate" -> {
+                // a caller-supplied Inflater is not released by close(), so end it here
+                var inflater = new Inflater();
+                yield new InflaterInputStream(body, inflater, DECOMPRESSION_BUFFER_SIZE) {
+                    @Override
+                    public void close() throws IOException {
+                        try {
+                            super.close();
+                        } finally {
+                            inflater.end();
+                        }
+                    }
+                };
+            }
+            case "identity" -> body;
+            default -> throw new IOException("Unsupported Content-Encoding " + contentEncoding);
+        };
+    }
 
 }
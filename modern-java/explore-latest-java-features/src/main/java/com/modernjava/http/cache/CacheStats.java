@@ -0,0 +1,22 @@
+package com.modernjava.http.cache;
+
+/**
+ * Point in time view of the {@link MovieCache} counters.
+ */
+public record CacheStats(long hits,
+                         long misses,
+                         long loads,
+                         long loadFailures,
+                         long totalLoadNanos,
+                         long evictions,
+                         int size) {
+
+    public double hitRatio() {
+        var requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+
+    public double averageLoadMillis() {
+        return loads == 0 ? 0.0 : totalLoadNanos / 1_000_000.0 / loads;
+    }
+}
@@ -0,0 +1,162 @@
+package com.modernjava.http.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Persistent HTTP cache that keeps response bodies on disk together with their
+ * {@code ETag} and {@code Last-Modified} headers.
+ * Every fetch revalidates with {@code If-None-Match} / {@code If-Modified-Since}:
+ * a 200 response is streamed straight to disk, a 304 response is served from the
+ * memory-mapped copy that is already there, so restarts do not download unchanged bodies again.
+ * Concurrent fetches of the same URI download to their own temp files; the body and its headers are then
+ * swapped in together, so they always belong to the same response.
+ */
+public class DiskHttpCache {
+
+    private static final String ETAG = "ETag";
+    private static final String LAST_MODIFIED = "Last-Modified";
+
+    private final Path directory;
+    private final Map<String, Object> commitLocks = new ConcurrentHashMap<>();
+
+    public DiskHttpCache(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    /**
+     * @param body      the memory-mapped response body
+     * @param fromCache true if the origin answered 304 Not Modified
+     */
+    public record CachedResponse(MappedByteBuffer body, boolean fromCache) {
+
+        public InputStream bodyAsStream() {
+            return new ByteBufferInputStream(body.duplicate());
+        }
+    }
+
+    public CachedResponse fetch(HttpClient client, URI uri) throws IOException, InterruptedException {
+        return fetch(client, uri, true);
+    }
+
+    private CachedResponse fetch(HttpClient client, URI uri, boolean revalidate) throws IOException, InterruptedException {
+        var key = cacheKey(uri);
+        var bodyFile = directory.resolve(key + ".body");
+        var metadataFile = directory.resolve(key + ".properties");
+
+        var metadata = new Properties();
+        var requestBuilder = HttpRequest.newBuilder(uri).GET();
+        if (revalidate && Files.exists(bodyFile) && Files.exists(metadataFile)) {
+            try (var reader = Files.newBufferedReader(metadataFile)) {
+                metadata.load(reader);
+            }
+            if (metadata.containsKey(ETAG)) {
+                requestBuilder.header("If-None-Match", metadata.getProperty(ETAG));
+            }
+            if (metadata.containsKey(LAST_MODIFIED)) {
+                requestBuilder.header("If-Modified-Since", metadata.getProperty(LAST_MODIFIED));
+            }
+        }
+
+        var downloadFile = Files.createTempFile(directory, key, ".download");
+        var metadataDownload = Files.createTempFile(directory, key, ".properties.download");
+        try {
+            var response = client.send(requestBuilder.build(), responseInfo -> responseInfo.statusCode() == 200
+                    ? HttpResponse.BodySubscribers.ofFile(downloadFile)
+                    : HttpResponse.BodySubscribers.replacing(null));
+
+            if (response.statusCode() == 304) {
+                try {
+                    return new CachedResponse(map(bodyFile), true);
+                } catch (NoSuchFileException e) {
+                    // the body was deleted after its headers were read, download it again
+                    return fetch(client, uri, false);
+                }
+            }
+            if (response.statusCode() != 200) {
+                throw new IOException("Unexpected status " + response.statusCode() + " from " + uri);
+            }
+
+            var newMetadata = new Properties();
+            response.headers().firstValue(ETAG).ifPresent(etag -> newMetadata.setProperty(ETAG, etag));
+            response.headers().firstValue(LAST_MODIFIED).ifPresent(lastModified -> newMetadata.setProperty(LAST_MODIFIED, lastModified));
+            try (var writer = Files.newBufferedWriter(metadataDownload)) {
+                newMetadata.store(writer, uri.toString());
+            }
+            synchronized (commitLocks.computeIfAbsent(key, k -> new Object())) {
+                // body first: if we stop before the metadata is moved, the next fetch simply downloads again
+                Files.move(downloadFile, bodyFile, REPLACE_EXISTING, ATOMIC_MOVE);
+                Files.move(metadataDownload, metadataFile, REPLACE_EXISTING, ATOMIC_MOVE);
+                return new CachedResponse(map(bodyFile), false);
+            }
+        } finally {
+            Files.deleteIfExists(downloadFile);
+            Files.deleteIfExists(metadataDownload);
+        }
+    }
+
+    private static MappedByteBuffer map(Path file) throws IOException {
+        try (var channel = FileChannel.open(file, READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private static String cacheKey(URI uri) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(uri.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            var count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.modernjava.http.cache;
+
+import com.modernjava.http.Movie;
+import com.modernjava.http.MoviesClient;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongFunction;
+
+/**
+ * Bounded in-memory cache of movies by id, in front of {@link MoviesClient#retrieveMovieByIdAsync(long)}.
+ * <ul>
+ *   <li>entries expire {@code ttl} after they were loaded</li>
+ *   <li>once {@code maxSize} is reached an approximately least recently used entry is evicted:
+ *   the least recently read of a small sample of entries</li>
+ *   <li>concurrent misses for the same id share a single in-flight load</li>
+ * </ul>
+ * Hits take no lock, they only record the access time on the entry.
+ */
+public class MovieCache {
+
+    private static final int EVICTION_SAMPLE_SIZE = 8;
+
+    private final LongFunction<CompletableFuture<Movie>> loader;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Map<Long, CachedMovie> entries = new ConcurrentHashMap<>();
+    private final Map<Long, CompletableFuture<Movie>> inFlight = new ConcurrentHashMap<>();
+
+    // guards evictionHand, which keeps moving through the entries so successive samples differ
+    private final Object evictionLock = new Object();
+    private Iterator<Map.Entry<Long, CachedMovie>> evictionHand = Collections.emptyIterator();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder totalLoadNanos = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public MovieCache(MoviesClient moviesClient, int maxSize, Duration ttl) {
+        this(moviesClient::retrieveMovieByIdAsync, maxSize, ttl);
+    }
+
+    public MovieCache(LongFunction<CompletableFuture<Movie>> loader, int maxSize, Duration ttl) {
+        this.loader = loader;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public Movie get(long movieId) {
+        try {
+            return getAsync(movieId).join();
+        } catch (CompletionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    public CompletableFuture<Movie> getAsync(long movieId) {
+        var movie = cachedMovie(movieId);
+        if (movie != null) {
+            hits.increment();
+            return CompletableFuture.completedFuture(movie);
+        }
+        misses.increment();
+
+        var load = new CompletableFuture<Movie>();
+        var existingLoad = inFlight.putIfAbsent(movieId, load);
+        if (existingLoad != null) {
+            return existingLoad;
+        }
+        // a load that finished between the lookup above and putIfAbsent has already left inFlight,
+        // so look again before starting a second one
+        movie = cachedMovie(movieId);
+        if (movie != null) {
+            inFlight.remove(movieId, load);
+            load.complete(movie);
+            return load;
+        }
+        startLoad(movieId, load);
+        return load;
+    }
+
+    public void invalidate(long movieId) {
+        entries.remove(movieId);
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), loads.sum(), loadFailures.sum(),
+                totalLoadNanos.sum(), evictions.sum(), entries.size());
+    }
+
+    /**
+     * @return the cached movie, or {@code null} if it is missing or expired
+     */
+    private Movie cachedMovie(long movieId) {
+        var cachedMovie = entries.get(movieId);
+        if (cachedMovie == null) {
+            return null;
+        }
+        var now = System.nanoTime();
+        if (now - cachedMovie.loadedAtNanos() >= ttlNanos) {
+            entries.remove(movieId, cachedMovie);
+            return null;
+        }
+        cachedMovie.lastAccessNanos = now;
+        return cachedMovie.movie();
+    }
+
+    private void startLoad(long movieId, CompletableFuture<Movie> load) {
+        var start = System.nanoTime();
+        CompletableFuture<Movie> loaded;
+        try {
+            loaded = loader.apply(movieId);
+        } catch (RuntimeException e) {
+            loaded = CompletableFuture.failedFuture(e);
+        }
+        loaded.whenComplete((movie, error) -> {
+            var end = System.nanoTime();
+            loads.increment();
+            totalLoadNanos.add(end - start);
+            if (error == null) {
+                entries.put(movieId, new CachedMovie(movie, end));
+                evictIfFull();
+            } else {
+                loadFailures.increment();
+            }
+            // cache first, so a miss that checks inFlight after this remove finds the entry on its second look
+            inFlight.remove(movieId, load);
+            if (error == null) {
+                load.complete(movie);
+            } else {
+                load.completeExceptionally(error instanceof CompletionException ? error.getCause() : error);
+            }
+        });
+    }
+
+    private void evictIfFull() {
+        if (entries.size() <= maxSize) {
+            return;
+        }
+        synchronized (evictionLock) {
+            while (entries.size() > maxSize) {
+                Map.Entry<Long, CachedMovie> victim = null;
+                for (int i = 0; i < EVICTION_SAMPLE_SIZE; i++) {
+                    if (!evictionHand.hasNext()) {
+                        evictionHand = entries.entrySet().iterator();
+                        if (!evictionHand.hasNext()) {
+                            return;
+                        }
+                    }
+                    var candidate = evictionHand.next();
+                    if (victim == null || candidate.getValue().lastAccessNanos < victim.getValue().lastAccessNanos) {
+                        victim = candidate;
+                    }
+                }
+                if (entries.remove(victim.getKey(), victim.getValue())) {
+                    evictions.increment();
+                }
+            }
+        }
+    }
+
+    private static final class CachedMovie {
+        private final Movie movie;
+        private final long loadedAtNanos;
+        private volatile long lastAccessNanos;
+
+        CachedMovie(Movie movie, long loadedAtNanos) {
+            this.movie = movie;
+            this.loadedAtNanos = loadedAtNanos;
+            this.lastAccessNanos = loadedAtNanos;
+        }
+
+        Movie movie() {
+            return movie;
+        }
+
+        long loadedAtNanos() {
+            return loadedAtNanos;
+        }
+    }
+}
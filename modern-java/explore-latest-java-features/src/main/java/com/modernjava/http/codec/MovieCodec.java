@@ -0,0 +1,678 @@
+package com.modernjava.http.codec;
+
+import com.modernjava.http.Movie;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Hand-written JSON decoder and encoder for {@link Movie}, without reflection or a token tree.
+ * The decoder reads straight from a refillable byte buffer, so it streams arrays of any size,
+ * and parses {@code release_date} from its ten ASCII digits without going through a formatter.
+ * Unknown fields are skipped; the output of the encoder matches Jackson's for the same movie.
+ */
+public class MovieCodec {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final int REPLACEMENT_CHARACTER = 0xFFFD;
+
+    private static final byte[] MOVIE_ID = ascii("movie_id");
+    private static final byte[] NAME = ascii("name");
+    private static final byte[] CAST = ascii("cast");
+    private static final byte[] YEAR = ascii("year");
+    private static final byte[] RELEASE_DATE = ascii("release_date");
+
+    public static Movie decode(byte[] json) {
+        try {
+            var decoder = new Decoder(new ByteArrayInputStream(json));
+            return decoder.readMovie();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static List<Movie> decodeArray(byte[] json) {
+        var movies = new ArrayList<Movie>();
+        try (var stream = decodeArray(new ByteArrayInputStream(json))) {
+            stream.forEach(movies::add);
+        }
+        return movies;
+    }
+
+    /**
+     * Lazily decodes a JSON array of movies while reading the input stream.
+     * The returned stream closes the input stream when it is closed.
+     */
+    public static Stream<Movie> decodeArray(InputStream inputStream) {
+        var decoder = new Decoder(inputStream);
+        var spliterator = new Spliterators.AbstractSpliterator<Movie>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            private boolean started;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super Movie> action) {
+                try {
+                    if (!started) {
+                        decoder.expect('[');
+                        started = true;
+                        if (decoder.peek() == ']') {
+                            return false;
+                        }
+                    } else {
+                        var next = decoder.nextNonWhitespace();
+                        if (next == ']') {
+                            return false;
+                        }
+                        if (next != ',') {
+                            throw decoder.error("Expected ',' or ']'");
+                        }
+                    }
+                    action.accept(decoder.readMovie());
+                    return true;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                inputStream.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    public static byte[] encode(Movie movie) {
+        var out = new ByteArrayOutputStream(160);
+        try {
+            var encoder = new Encoder(out);
+            encoder.writeMovie(movie);
+            encoder.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    public static void encodeArray(List<Movie> movies, OutputStream outputStream) throws IOException {
+        var encoder = new Encoder(outputStream);
+        encoder.write('[');
+        for (int i = 0; i < movies.size(); i++) {
+            if (i > 0) {
+                encoder.write(',');
+            }
+            encoder.writeMovie(movies.get(i));
+        }
+        encoder.write(']');
+        encoder.flush();
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static final class Decoder {
+
+        private final InputStream inputStream;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int position;
+        private int limit;
+        private long consumed;
+
+        // reused for field names and strings
+        private byte[] scratch = new byte[256];
+        private int scratchLength;
+
+        Decoder(InputStream inputStream) {
+            this.inputStream = inputStream;
+        }
+
+        Movie readMovie() throws IOException {
+            expect('{');
+            Double movieId = null;
+            String name = null;
+            String cast = null;
+            Integer year = null;
+            LocalDate releaseDate = null;
+
+            if (peek() == '}') {
+                position++;
+                return new Movie(null, null, null, null, null);
+            }
+            while (true) {
+                expect('"');
+                readStringBytes();
+                expect(':');
+                if (fieldIs(MOVIE_ID)) {
+                    movieId = readNullOr(() -> readNumber());
+                } else if (fieldIs(NAME)) {
+                    name = readNullOr(this::readString);
+                } else if (fieldIs(CAST)) {
+                    cast = readNullOr(this::readString);
+                } else if (fieldIs(YEAR)) {
+                    year = readNullOr(() -> (int) readNumber());
+                } else if (fieldIs(RELEASE_DATE)) {
+                    releaseDate = readNullOr(this::readDate);
+                } else {
+                    skipValue();
+                }
+                var next = nextNonWhitespace();
+                if (next == '}') {
+                    return new Movie(movieId, name, cast, year, releaseDate);
+                }
+                if (next != ',') {
+                    throw error("Expected ',' or '}'");
+                }
+            }
+        }
+
+        private interface ValueReader<T> {
+            T read() throws IOException;
+        }
+
+        private <T> T readNullOr(ValueReader<T> valueReader) throws IOException {
+            if (peek() == 'n') {
+                expectLiteral("null");
+                return null;
+            }
+            return valueReader.read();
+        }
+
+        private boolean fieldIs(byte[] field) {
+            return Arrays.equals(scratch, 0, scratchLength, field, 0, field.length);
+        }
+
+        /**
+         * Dates are "yyyy-MM-dd": the digits are turned into numbers directly.
+         */
+        private LocalDate readDate() throws IOException {
+            expect('"');
+            var year = digits(4);
+            expectByte('-');
+            var month = digits(2);
+            expectByte('-');
+            var day = digits(2);
+            expectByte('"');
+            return LocalDate.of(year, month, day);
+        }
+
+        private int digits(int count) throws IOException {
+            var value = 0;
+            for (int i = 0; i < count; i++) {
+                var digit = read() - '0';
+                if (digit < 0 || digit > 9) {
+                    throw error("Expected a digit");
+                }
+                value = value * 10 + digit;
+            }
+            return value;
+        }
+
+        /**
+         * Integers, the common case, are accumulated directly; anything with a fraction
+         * or an exponent falls back to {@link Double#parseDouble(String)}.
+         */
+        private double readNumber() throws IOException {
+            skipWhitespace();
+            scratchLength = 0;
+            var negative = false;
+            long value = 0;
+            var integral = true;
+            while (true) {
+                var next = peekRaw();
+                if (next >= '0' && next <= '9') {
+                    value = value * 10 + (next - '0');
+                } else if (next == '-' && scratchLength == 0) {
+                    negative = true;
+                } else if (next == '.' || next == 'e' || next == 'E' || next == '+' || next == '-') {
+                    integral = false;
+                } else {
+                    break;
+                }
+                appendScratch(next);
+                position++;
+            }
+            if (scratchLength == 0) {
+                throw error("Expected a number");
+            }
+            if (integral && scratchLength < 18) {
+                return negative ? -value : value;
+            }
+            return Double.parseDouble(new String(scratch, 0, scratchLength, StandardCharsets.US_ASCII));
+        }
+
+        private String readString() throws IOException {
+            expect('"');
+            var ascii = readStringBytes();
+            return new String(scratch, 0, scratchLength, ascii ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Reads the rest of a string, after the opening quote, into the scratch buffer.
+         *
+         * @return true if every byte is ASCII
+         */
+        private boolean readStringBytes() throws IOException {
+            scratchLength = 0;
+            var ascii = true;
+            while (true) {
+                var next = read();
+                if (next == '"') {
+                    return ascii;
+                }
+                if (next == '\\') {
+                    ascii &= appendEscape(read());
+                } else {
+                    ascii &= next < 0x80;
+                    appendScratch(next);
+                }
+            }
+        }
+
+        /**
+         * Appends the character of the escape sequence whose backslash has been read.
+         *
+         * @return true if the character is ASCII
+         */
+        private boolean appendEscape(int escaped) throws IOException {
+            switch (escaped) {
+                case '"', '\\', '/' -> appendScratch(escaped);
+                case 'b' -> appendScratch('\b');
+                case 'f' -> appendScratch('\f');
+                case 'n' -> appendScratch('\n');
+                case 'r' -> appendScratch('\r');
+                case 't' -> appendScratch('\t');
+                case 'u' -> {
+                    return appendUnicodeEscape();
+                }
+                default -> throw error("Invalid escape");
+            }
+            return true;
+        }
+
+        /**
+         * Appends a {@code \\uXXXX} escape as UTF-8. A surrogate pair is combined from two consecutive escapes,
+         * a surrogate without its other half becomes U+FFFD.
+         *
+         * @return true if the character is ASCII
+         */
+        private boolean appendUnicodeEscape() throws IOException {
+            var codeUnit = (char) readHex4();
+            while (Character.isHighSurrogate(codeUnit)) {
+                if (peekRaw() != '\\') {
+                    appendCodePoint(REPLACEMENT_CHARACTER);
+                    return false;
+                }
+                position++;
+                var escaped = read();
+                if (escaped != 'u') {
+                    appendCodePoint(REPLACEMENT_CHARACTER);
+                    appendEscape(escaped);
+                    return false;
+                }
+                var nextCodeUnit = (char) readHex4();
+                if (Character.isLowSurrogate(nextCodeUnit)) {
+                    appendCodePoint(Character.toCodePoint(codeUnit, nextCodeUnit));
+                    return false;
+                }
+                appendCodePoint(REPLACEMENT_CHARACTER);
+                codeUnit = nextCodeUnit;
+            }
+            if (Character.isLowSurrogate(codeUnit)) {
+                appendCodePoint(REPLACEMENT_CHARACTER);
+                return false;
+            }
+            appendCodePoint(codeUnit);
+            return codeUnit < 0x80;
+        }
+
+        private int readHex4() throws IOException {
+            var value = 0;
+            for (int i = 0; i < 4; i++) {
+                var digit = Character.digit(read(), 16);
+                if (digit < 0) {
+                    throw error("Invalid unicode escape");
+                }
+                value = value << 4 | digit;
+            }
+            return value;
+        }
+
+        private void appendCodePoint(int codePoint) {
+            if (codePoint < 0x80) {
+                appendScratch(codePoint);
+            } else if (codePoint < 0x800) {
+                appendScratch(0xC0 | codePoint >> 6);
+                appendScratch(0x80 | codePoint & 0x3F);
+            } else if (codePoint < 0x10000) {
+                appendScratch(0xE0 | codePoint >> 12);
+                appendScratch(0x80 | codePoint >> 6 & 0x3F);
+                appendScratch(0x80 | codePoint & 0x3F);
+            } else {
+                appendScratch(0xF0 | codePoint >> 18);
+                appendScratch(0x80 | codePoint >> 12 & 0x3F);
+                appendScratch(0x80 | codePoint >> 6 & 0x3F);
+                appendScratch(0x80 | codePoint & 0x3F);
+            }
+        }
+
+        private void skipValue() throws IOException {
+            var next = peek();
+            switch (next) {
+                case '"' -> {
+                    position++;
+                    readStringBytes();
+                }
+                case '{', '[' -> {
+                    var depth = 0;
+                    do {
+                        var b = read();
+                        if (b == '"') {
+                            readStringBytes();
+                        } else if (b == '{' || b == '[') {
+                            depth++;
+                        } else if (b == '}' || b == ']') {
+                            depth--;
+                        }
+                    } while (depth > 0);
+                }
+                case 't' -> expectLiteral("true");
+                case 'f' -> expectLiteral("false");
+                case 'n' -> expectLiteral("null");
+                default -> readNumber();
+            }
+        }
+
+        private void appendScratch(int b) {
+            if (scratchLength == scratch.length) {
+                scratch = Arrays.copyOf(scratch, scratch.length * 2);
+            }
+            scratch[scratchLength++] = (byte) b;
+        }
+
+        void expect(char expected) throws IOException {
+            if (nextNonWhitespace() != expected) {
+                throw error("Expected '" + expected + "'");
+            }
+        }
+
+        private void expectByte(char expected) throws IOException {
+            if (read() != expected) {
+                throw error("Expected '" + expected + "'");
+            }
+        }
+
+        private void expectLiteral(String literal) throws IOException {
+            skipWhitespace();
+            for (int i = 0; i < literal.length(); i++) {
+                expectByte(literal.charAt(i));
+            }
+        }
+
+        int nextNonWhitespace() throws IOException {
+            skipWhitespace();
+            return read();
+        }
+
+        int peek() throws IOException {
+            skipWhitespace();
+            return peekRaw();
+        }
+
+        private void skipWhitespace() throws IOException {
+            while (true) {
+                var next = peekRaw();
+                if (next != ' ' && next != '\n' && next != '\r' && next != '\t') {
+                    return;
+                }
+                position++;
+            }
+        }
+
+        private int peekRaw() throws IOException {
+            if (position == limit && !fill()) {
+                return -1;
+            }
+            return buffer[position] & 0xFF;
+        }
+
+        private int read() throws IOException {
+            if (position == limit && !fill()) {
+                throw error("Unexpected end of input");
+            }
+            return buffer[position++] & 0xFF;
+        }
+
+        private boolean fill() throws IOException {
+            consumed += limit;
+            position = 0;
+            limit = Math.max(0, inputStream.read(buffer, 0, buffer.length));
+            return limit > 0;
+        }
+
+        IOException error(String message) {
+            return new IOException(message + " at offset " + (consumed + position));
+        }
+    }
+
+    private static final class Encoder {
+
+        private static final byte[] HEX = ascii("0123456789abcdef");
+        private static final byte[] NULL = ascii("null");
+
+        private final OutputStream outputStream;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int position;
+
+        Encoder(OutputStream outputStream) {
+            this.outputStream = outputStream;
+        }
+
+        void writeMovie(Movie movie) throws IOException {
+            write('{');
+            writeField(MOVIE_ID);
+            writeMovieId(movie.movie_id());
+            write(',');
+            writeField(NAME);
+            writeString(movie.name());
+            write(',');
+            writeField(CAST);
+            writeString(movie.cast());
+            write(',');
+            writeField(YEAR);
+            if (movie.year() == null) {
+                writeBytes(NULL);
+            } else {
+                writeLong(movie.year());
+            }
+            write(',');
+            writeField(RELEASE_DATE);
+            writeDate(movie.release_date());
+            write('}');
+        }
+
+        private void writeField(byte[] field) throws IOException {
+            ensureCapacity(field.length + 3);
+            buffer[position++] = '"';
+            System.arraycopy(field, 0, buffer, position, field.length);
+            position += field.length;
+            buffer[position++] = '"';
+            buffer[position++] = ':';
+        }
+
+        /**
+         * Ids are whole numbers in practice: write them as digits plus ".0", like {@link Double#toString(double)}
+         * does below 10^7, and only fall back to {@code toString} for anything else.
+         */
+        private void writeMovieId(Double movieId) throws IOException {
+            if (movieId == null) {
+                writeBytes(NULL);
+                return;
+            }
+            var value = movieId.doubleValue();
+            if (value >= 0 && value < 1e7 && value == Math.rint(value)) {
+                writeLong((long) value);
+                write('.');
+                write('0');
+            } else {
+                writeBytes(ascii(movieId.toString()));
+            }
+        }
+
+        private void writeDate(LocalDate date) throws IOException {
+            if (date == null) {
+                writeBytes(NULL);
+                return;
+            }
+            if (date.getYear() < 0 || date.getYear() > 9999) {
+                writeBytes(ascii("\"" + date + "\""));
+                return;
+            }
+            ensureCapacity(12);
+            buffer[position++] = '"';
+            writeDigits(date.getYear(), 4);
+            buffer[position++] = '-';
+            writeDigits(date.getMonthValue(), 2);
+            buffer[position++] = '-';
+            writeDigits(date.getDayOfMonth(), 2);
+            buffer[position++] = '"';
+        }
+
+        private void writeDigits(int value, int count) {
+            for (int i = position + count - 1; i >= position; i--) {
+                buffer[i] = (byte) ('0' + value % 10);
+                value /= 10;
+            }
+            position += count;
+        }
+
+        private void writeLong(long value) throws IOException {
+            ensureCapacity(20);
+            if (value < 0) {
+                buffer[position++] = '-';
+                value = -value;
+            }
+            var digits = 1;
+            for (long rest = value / 10; rest > 0; rest /= 10) {
+                digits++;
+            }
+            for (int i = position + digits - 1; i >= position; i--) {
+                buffer[i] = (byte) ('0' + value % 10);
+                value /= 10;
+            }
+            position += digits;
+        }
+
+        private void writeString(String value) throws IOException {
+            if (value == null) {
+                writeBytes(NULL);
+                return;
+            }
+            // worst case every char becomes a six byte unicode escape
+            var worstCase = value.length() * 6 + 2;
+            if (worstCase > buffer.length) {
+                writeLongString(value);
+                return;
+            }
+            ensureCapacity(worstCase);
+            buffer[position++] = '"';
+            for (int i = 0; i < value.length(); i++) {
+                var c = value.charAt(i);
+                if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                    buffer[position++] = (byte) c;
+                } else if (c < 0x80) {
+                    writeEscaped(c);
+                } else {
+                    // rare: let the JDK handle multi-byte characters and surrogate pairs
+                    var end = i + 1;
+                    while (end < value.length() && value.charAt(end) >= 0x80) {
+                        end++;
+                    }
+                    var utf8 = value.substring(i, end).getBytes(StandardCharsets.UTF_8);
+                    System.arraycopy(utf8, 0, buffer, position, utf8.length);
+                    position += utf8.length;
+                    i = end - 1;
+                }
+            }
+            buffer[position++] = '"';
+        }
+
+        private void writeEscaped(char c) {
+            buffer[position++] = '\\';
+            switch (c) {
+                case '"', '\\' -> buffer[position++] = (byte) c;
+                case '\n' -> buffer[position++] = 'n';
+                case '\r' -> buffer[position++] = 'r';
+                case '\t' -> buffer[position++] = 't';
+                case '\b' -> buffer[position++] = 'b';
+                case '\f' -> buffer[position++] = 'f';
+                default -> {
+                    buffer[position++] = 'u';
+                    buffer[position++] = '0';
+                    buffer[position++] = '0';
+                    buffer[position++] = HEX[c >> 4];
+                    buffer[position++] = HEX[c & 0xF];
+                }
+            }
+        }
+
+        private void writeLongString(String value) throws IOException {
+            write('"');
+            for (int i = 0; i < value.length(); i++) {
+                var c = value.charAt(i);
+                ensureCapacity(6);
+                if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                    buffer[position++] = (byte) c;
+                } else if (c < 0x80) {
+                    writeEscaped(c);
+                } else {
+                    var codePoint = value.codePointAt(i);
+                    writeBytes(new String(Character.toChars(codePoint)).getBytes(StandardCharsets.UTF_8));
+                    i += Character.charCount(codePoint) - 1;
+                }
+            }
+            write('"');
+        }
+
+        private void writeBytes(byte[] bytes) throws IOException {
+            if (bytes.length > buffer.length) {
+                flush();
+                outputStream.write(bytes);
+                return;
+            }
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        void write(int b) throws IOException {
+            ensureCapacity(1);
+            buffer[position++] = (byte) b;
+        }
+
+        private void ensureCapacity(int bytes) throws IOException {
+            if (position + bytes > buffer.length) {
+                flush();
+            }
+        }
+
+        void flush() throws IOException {
+            outputStream.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+}
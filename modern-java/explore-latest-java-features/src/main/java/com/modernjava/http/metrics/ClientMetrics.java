@@ -0,0 +1,107 @@
+package com.modernjava.http.metrics;
+
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint request counts, latency histograms, response bytes, decode time and connection reuse.
+ * Recording only touches {@link LongAdder}s and atomic counters, so it takes no lock.
+ * Every response also emits an {@link HttpExchangeEvent} when JFR is recording.
+ *
+ * <p>Latency is measured until the response headers arrive. Responses read as a stream are decoded
+ * while the body arrives, so their decode time runs until the stream is closed and includes receiving the body.</p>
+ */
+public class ClientMetrics {
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final RecentConnections recentConnections = new RecentConnections();
+
+    private static final class Endpoint {
+        final LongAdder requests = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        final LongAdder responseBytes = new LongAdder();
+        final LongAdder decodeNanos = new LongAdder();
+        final LongAdder labelledResponses = new LongAdder();
+        final LongAdder reusedConnections = new LongAdder();
+        final LatencyHistogram latency = new LatencyHistogram();
+    }
+
+    /**
+     * Records a received response, whatever its status code.
+     */
+    public void recordExchange(String endpoint,
+                               HttpResponse<?> response,
+                               long latencyNanos,
+                               long responseBytes,
+                               long decodeNanos) {
+        var stats = endpoint(endpoint);
+        stats.requests.increment();
+        if (response.statusCode() >= 400) {
+            stats.failures.increment();
+        }
+        stats.latency.record(latencyNanos);
+        stats.responseBytes.add(responseBytes);
+        stats.decodeNanos.add(decodeNanos);
+
+        // the label identifies the connection the response came from
+        var connection = response.connectionLabel().orElse(null);
+        var reused = false;
+        if (connection != null) {
+            stats.labelledResponses.increment();
+            reused = recentConnections.reused(connection);
+            if (reused) {
+                stats.reusedConnections.increment();
+            }
+        }
+
+        var event = new HttpExchangeEvent();
+        if (event.shouldCommit()) {
+            event.endpoint = endpoint;
+            event.statusCode = response.statusCode();
+            event.latency = latencyNanos;
+            event.decodeTime = decodeNanos;
+            event.responseBytes = responseBytes;
+            event.connection = connection;
+            event.connectionReused = reused;
+            event.commit();
+        }
+    }
+
+    /**
+     * Records a request that did not receive a response, e.g. a timeout or a refused connection.
+     */
+    public void recordFailure(String endpoint, long latencyNanos) {
+        var stats = endpoint(endpoint);
+        stats.requests.increment();
+        stats.failures.increment();
+        stats.latency.record(latencyNanos);
+    }
+
+    /**
+     * @return the metrics of every endpoint, by endpoint name
+     */
+    public Map<String, EndpointStats> snapshot() {
+        var snapshot = new TreeMap<String, EndpointStats>();
+        endpoints.forEach((name, stats) -> {
+            var labelled = stats.labelledResponses.sum();
+            snapshot.put(name, new EndpointStats(name,
+                    stats.requests.sum(),
+                    stats.failures.sum(),
+                    Duration.ofNanos(stats.latency.percentile(0.50)),
+                    Duration.ofNanos(stats.latency.percentile(0.95)),
+                    Duration.ofNanos(stats.latency.percentile(0.99)),
+                    stats.responseBytes.sum(),
+                    Duration.ofNanos(stats.decodeNanos.sum()),
+                    labelled == 0 ? 0 : (double) stats.reusedConnections.sum() / labelled));
+        });
+        return snapshot;
+    }
+
+    private Endpoint endpoint(String endpoint) {
+        return endpoints.computeIfAbsent(endpoint, name -> new Endpoint());
+    }
+}
@@ -0,0 +1,19 @@
+package com.modernjava.http.metrics;
+
+import java.time.Duration;
+
+/**
+ * Metrics of one endpoint at the time of {@link ClientMetrics#snapshot()}.
+ *
+ * @param connectionReuseRatio fraction of the responses received on a recently used connection
+ */
+public record EndpointStats(String endpoint,
+                            long requests,
+                            long failures,
+                            Duration p50,
+                            Duration p95,
+                            Duration p99,
+                            long responseBytes,
+                            Duration decodeTime,
+                            double connectionReuseRatio) {
+}
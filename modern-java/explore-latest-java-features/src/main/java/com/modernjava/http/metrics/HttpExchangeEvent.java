@@ -0,0 +1,47 @@
+package com.modernjava.http.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event emitted for every response received by {@code MoviesClient}.
+ */
+@Name(HttpExchangeEvent.NAME)
+@Label("Movies HTTP Exchange")
+@Category({"Modern Java", "Movies Client"})
+@Description("A request to the movies backend and the decoding of its response")
+@StackTrace(false)
+public class HttpExchangeEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "com.modernjava.MoviesHttpExchange";
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Status Code")
+    int statusCode;
+
+    @Label("Latency")
+    @Description("Time from sending the request until the response was received")
+    @Timespan
+    long latency;
+
+    @Label("Decode Time")
+    @Timespan
+    long decodeTime;
+
+    @Label("Response Bytes")
+    @DataAmount
+    long responseBytes;
+
+    @Label("Connection")
+    String connection;
+
+    @Label("Connection Reused")
+    boolean connectionReused;
+}
@@ -0,0 +1,44 @@
+package com.modernjava.http.metrics;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Labels of the most recently used connections, from {@code HttpResponse.connectionLabel()}, to tell reused
+ * connections from new ones. Lock-free and bounded: each label hashes to one of {@code capacity} slots,
+ * which remembers the last label seen there. A long-running client therefore does not keep the label of every
+ * connection it ever opened.
+ *
+ * <p>The answer is an approximation on the safe side: a connection is never reported as reused before it was
+ * seen, but two connections sharing a slot evict each other, so one idle for a while, or unlucky, counts as
+ * new once more.</p>
+ */
+class RecentConnections {
+
+    static final int DEFAULT_CAPACITY = 1024;
+
+    private final AtomicReferenceArray<String> slots;
+    private final int mask;
+
+    RecentConnections() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity number of slots, rounded up to a power of two
+     */
+    RecentConnections(int capacity) {
+        var slotCount = capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(slotCount);
+        this.mask = slotCount - 1;
+    }
+
+    /**
+     * @return true if the connection was used recently, i.e. this response reused it
+     */
+    boolean reused(String connection) {
+        var hash = connection.hashCode();
+        var slot = (hash ^ (hash >>> 16)) & mask;
+        // the common case, a connection reused again and again, only reads the slot
+        return connection.equals(slots.get(slot)) || connection.equals(slots.getAndSet(slot, connection));
+    }
+}
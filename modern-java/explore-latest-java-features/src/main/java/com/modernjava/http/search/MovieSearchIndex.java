@@ -0,0 +1,244 @@
+package com.modernjava.http.search;
+
+import com.modernjava.http.Movie;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over the movie cast and titles.
+ * {@code Movie.cast} and {@code Movie.name} are split into lower-case word tokens once, at indexing time, and each
+ * comma-separated cast member is also indexed under their full name, so both "Bale" and "Christian Bale" match;
+ * every token maps to a compressed {@link PostingList} of movie ids, so a query like "Bale AND Caine"
+ * is an intersection of two small sorted lists instead of a scan over the catalog.
+ *
+ * <p>Token strings are interned through the token dictionary, so every movie referencing "bale" shares
+ * one instance; a token is dropped from the dictionary once no indexed movie uses it any more.</p>
+ *
+ * <p>Queries are lock-free and read an immutable {@link Snapshot}. {@link #apply(Collection, long[])} builds the
+ * next snapshot off to the side and publishes it with a single volatile write, so a query sees either all of
+ * an update or none of it: never a movie under both its old and new tokens, nor under neither.
+ * Updates are serialized among themselves and copy the index, so batch changes together.</p>
+ */
+public class MovieSearchIndex {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private volatile Snapshot snapshot;
+
+    public MovieSearchIndex() {
+        this(new Snapshot(new HashMap<>(), new HashMap<>(), new HashMap<>(), new HashMap<>()));
+    }
+
+    private MovieSearchIndex(Snapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    private record IndexedMovie(Movie movie, String[] castTokens, String[] titleTokens) {
+    }
+
+    /**
+     * Immutable once published.
+     */
+    private record Snapshot(Map<String, String> tokenDictionary,
+                            Map<String, byte[]> castPostings,
+                            Map<String, byte[]> titlePostings,
+                            Map<Long, IndexedMovie> movies) {
+
+        Snapshot copy() {
+            return new Snapshot(new HashMap<>(tokenDictionary),
+                    new HashMap<>(castPostings),
+                    new HashMap<>(titlePostings),
+                    new HashMap<>(movies));
+        }
+
+        void add(IndexedMovie indexedMovie) {
+            var movieId = indexedMovie.movie().movie_id().longValue();
+            for (String token : indexedMovie.castTokens()) {
+                castPostings.merge(token, PostingList.encode(new long[]{movieId}), (postings, ignored) -> PostingList.add(postings, movieId));
+            }
+            for (String token : indexedMovie.titleTokens()) {
+                titlePostings.merge(token, PostingList.encode(new long[]{movieId}), (postings, ignored) -> PostingList.add(postings, movieId));
+            }
+            movies.put(movieId, indexedMovie);
+        }
+
+        /**
+         * @param removedTokens collects the tokens of the removed movie, candidates for eviction from the dictionary
+         */
+        void remove(long movieId, Set<String> removedTokens) {
+            var indexedMovie = movies.remove(movieId);
+            if (indexedMovie == null) {
+                return;
+            }
+            for (String token : indexedMovie.castTokens()) {
+                castPostings.computeIfPresent(token, (t, postings) -> emptyToNull(PostingList.remove(postings, movieId)));
+                removedTokens.add(token);
+            }
+            for (String token : indexedMovie.titleTokens()) {
+                titlePostings.computeIfPresent(token, (t, postings) -> emptyToNull(PostingList.remove(postings, movieId)));
+                removedTokens.add(token);
+            }
+        }
+
+        void evictUnused(Set<String> tokens) {
+            for (String token : tokens) {
+                if (!castPostings.containsKey(token) && !titlePostings.containsKey(token)) {
+                    tokenDictionary.remove(token);
+                }
+            }
+        }
+    }
+
+    public static MovieSearchIndex build(Collection<Movie> catalog) {
+        var snapshot = new Snapshot(new HashMap<>(), new HashMap<>(), new HashMap<>(), new HashMap<>());
+        Map<String, List<Long>> cast = new HashMap<>();
+        Map<String, List<Long>> title = new HashMap<>();
+        for (Movie movie : catalog) {
+            var movieId = movie.movie_id().longValue();
+            var indexedMovie = tokenize(movie, snapshot.tokenDictionary());
+            snapshot.movies().put(movieId, indexedMovie);
+            for (String token : indexedMovie.castTokens()) {
+                cast.computeIfAbsent(token, t -> new ArrayList<>()).add(movieId);
+            }
+            for (String token : indexedMovie.titleTokens()) {
+                title.computeIfAbsent(token, t -> new ArrayList<>()).add(movieId);
+            }
+        }
+        cast.forEach((token, ids) -> snapshot.castPostings().put(token, encodeSorted(ids)));
+        title.forEach((token, ids) -> snapshot.titlePostings().put(token, encodeSorted(ids)));
+        return new MovieSearchIndex(snapshot);
+    }
+
+    /**
+     * @return ids, in ascending order, of the movies whose cast contains every term, either a single name
+     * like {@code "Bale"} or a full name like {@code "Christian Bale"}
+     */
+    public long[] moviesWithCast(String... terms) {
+        return search(snapshot.castPostings(), terms);
+    }
+
+    /**
+     * @return ids, in ascending order, of the movies whose title contains every term
+     */
+    public long[] moviesWithTitle(String... terms) {
+        return search(snapshot.titlePostings(), terms);
+    }
+
+    public List<Movie> movies(long[] movieIds) {
+        var movies = snapshot.movies();
+        var result = new ArrayList<Movie>(movieIds.length);
+        for (long movieId : movieIds) {
+            var indexedMovie = movies.get(movieId);
+            if (indexedMovie != null) {
+                result.add(indexedMovie.movie());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Applies the upserts and deletes as one atomic change, for example a {@code MovieDelta}.
+     */
+    public synchronized void apply(Collection<Movie> upserts, long[] deletedMovieIds) {
+        var next = snapshot.copy();
+        var removedTokens = new HashSet<String>();
+        for (long movieId : deletedMovieIds) {
+            next.remove(movieId, removedTokens);
+        }
+        for (Movie movie : upserts) {
+            next.remove(movie.movie_id().longValue(), removedTokens);
+            next.add(tokenize(movie, next.tokenDictionary()));
+        }
+        next.evictUnused(removedTokens);
+        snapshot = next;
+    }
+
+    public void upsert(Movie movie) {
+        apply(List.of(movie), new long[0]);
+    }
+
+    public void remove(long movieId) {
+        apply(List.of(), new long[]{movieId});
+    }
+
+    public int size() {
+        return snapshot.movies().size();
+    }
+
+    /**
+     * @return number of distinct tokens in the dictionary
+     */
+    int tokenCount() {
+        return snapshot.tokenDictionary().size();
+    }
+
+    private static long[] search(Map<String, byte[]> postings, String... terms) {
+        var lists = new long[terms.length][];
+        for (int i = 0; i < terms.length; i++) {
+            var postingList = postings.get(normalize(terms[i]));
+            if (postingList == null) {
+                return new long[0];
+            }
+            lists[i] = PostingList.decode(postingList);
+        }
+        return PostingList.intersect(lists);
+    }
+
+    private static IndexedMovie tokenize(Movie movie, Map<String, String> tokenDictionary) {
+        return new IndexedMovie(movie, castTokens(movie.cast(), tokenDictionary), toArray(words(movie.name(), tokenDictionary)));
+    }
+
+    private static String[] castTokens(String cast, Map<String, String> tokenDictionary) {
+        var tokens = words(cast, tokenDictionary);
+        if (cast != null) {
+            for (String member : cast.split(",")) {
+                var fullName = normalize(member);
+                if (!fullName.isEmpty()) {
+                    tokens.add(tokenDictionary.computeIfAbsent(fullName, t -> t));
+                }
+            }
+        }
+        return toArray(tokens);
+    }
+
+    private static LinkedHashSet<String> words(String text, Map<String, String> tokenDictionary) {
+        var tokens = new LinkedHashSet<String>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                var token = normalize(word);
+                tokens.add(tokenDictionary.computeIfAbsent(token, t -> t));
+            }
+        }
+        return tokens;
+    }
+
+    private static String[] toArray(LinkedHashSet<String> tokens) {
+        return tokens.toArray(String[]::new);
+    }
+
+    private static String normalize(String term) {
+        return WHITESPACE.matcher(Objects.requireNonNull(term).trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    private static byte[] encodeSorted(List<Long> ids) {
+        var sorted = ids.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+        return PostingList.encode(sorted);
+    }
+
+    private static byte[] emptyToNull(byte[] postings) {
+        return postings.length == 0 ? null : postings;
+    }
+}
@@ -0,0 +1,107 @@
+package com.modernjava.http.search;
+
+import java.util.Arrays;
+
+/**
+ * Sorted movie ids compressed as variable-length deltas: small gaps between ids take one byte.
+ */
+final class PostingList {
+
+    private PostingList() {
+    }
+
+    static byte[] encode(long[] sortedIds) {
+        var out = new byte[sortedIds.length * 10];
+        var position = 0;
+        long previous = 0;
+        for (long id : sortedIds) {
+            var delta = id - previous;
+            previous = id;
+            while ((delta & ~0x7FL) != 0) {
+                out[position++] = (byte) ((delta & 0x7F) | 0x80);
+                delta >>>= 7;
+            }
+            out[position++] = (byte) delta;
+        }
+        return Arrays.copyOf(out, position);
+    }
+
+    static long[] decode(byte[] postings) {
+        var ids = new long[postings.length];
+        var count = 0;
+        long previous = 0;
+        for (int position = 0; position < postings.length; ) {
+            long delta = 0;
+            var shift = 0;
+            byte b;
+            do {
+                b = postings[position++];
+                delta |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            previous += delta;
+            ids[count++] = previous;
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    static byte[] add(byte[] postings, long id) {
+        var ids = decode(postings);
+        var index = Arrays.binarySearch(ids, id);
+        if (index >= 0) {
+            return postings;
+        }
+        var insertAt = -index - 1;
+        var updated = new long[ids.length + 1];
+        System.arraycopy(ids, 0, updated, 0, insertAt);
+        updated[insertAt] = id;
+        System.arraycopy(ids, insertAt, updated, insertAt + 1, ids.length - insertAt);
+        return encode(updated);
+    }
+
+    static byte[] remove(byte[] postings, long id) {
+        var ids = decode(postings);
+        var index = Arrays.binarySearch(ids, id);
+        if (index < 0) {
+            return postings;
+        }
+        var updated = new long[ids.length - 1];
+        System.arraycopy(ids, 0, updated, 0, index);
+        System.arraycopy(ids, index + 1, updated, index, ids.length - index - 1);
+        return encode(updated);
+    }
+
+    /**
+     * Intersects sorted id arrays, starting from the shortest one.
+     */
+    static long[] intersect(long[][] lists) {
+        if (lists.length == 0) {
+            return new long[0];
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.length, b.length));
+        var result = lists[0];
+        for (int i = 1; i < lists.length && result.length > 0; i++) {
+            result = intersect(result, lists[i]);
+        }
+        return result;
+    }
+
+    private static long[] intersect(long[] shorter, long[] longer) {
+        var result = new long[shorter.length];
+        var count = 0;
+        var from = 0;
+        for (long id : shorter) {
+            var index = Arrays.binarySearch(longer, from, longer.length, id);
+            if (index >= 0) {
+                result[count++] = id;
+                from = index + 1;
+            } else {
+                from = -index - 1;
+            }
+            if (from == longer.length) {
+                break;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+}
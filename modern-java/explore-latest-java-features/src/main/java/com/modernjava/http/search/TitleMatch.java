@@ -0,0 +1,10 @@
+package com.modernjava.http.search;
+
+import com.modernjava.http.Movie;
+
+/**
+ * @param similarity   Dice coefficient of the query and title trigrams, from 0 to 1
+ * @param editDistance Levenshtein distance between the normalized query and title
+ */
+public record TitleMatch(Movie movie, double similarity, int editDistance) {
+}
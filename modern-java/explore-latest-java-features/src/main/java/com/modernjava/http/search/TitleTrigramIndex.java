@@ -0,0 +1,258 @@
+package com.modernjava.http.search;
+
+import com.modernjava.http.Movie;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Typo-tolerant title search: "dark night" finds "The Dark Knight".
+ * Every title is split into trigrams of its words, padded like {@code " dark "}, and each trigram maps to
+ * an ascending {@code int[]} of movie positions. A query merges the posting lists of its trigrams, which
+ * counts the overlap of every title sharing a trigram with sequential reads only; the best candidates by
+ * trigram similarity are then ranked again with the edit distance, so the catalog is never scanned.
+ *
+ * <p>The index is immutable once built, so queries need no locking. Rebuild it when the catalog changes.</p>
+ */
+public class TitleTrigramIndex {
+
+    /**
+     * Candidates below this trigram similarity are not considered at all.
+     */
+    private static final double MIN_SIMILARITY = 0.5;
+    /**
+     * How many candidates per requested result get the edit distance computed.
+     */
+    private static final int CANDIDATES_PER_RESULT = 4;
+
+    private final Movie[] movies;
+    private final String[] titles;
+    private final int[] trigramCounts;
+    private final Map<String, int[]> postings;
+
+    private TitleTrigramIndex(Movie[] movies, String[] titles, int[] trigramCounts, Map<String, int[]> postings) {
+        this.movies = movies;
+        this.titles = titles;
+        this.trigramCounts = trigramCounts;
+        this.postings = postings;
+    }
+
+    public static TitleTrigramIndex build(Collection<Movie> catalog) {
+        var movies = catalog.stream().filter(movie -> movie.name() != null).toArray(Movie[]::new);
+        var titles = new String[movies.length];
+        var trigramCounts = new int[movies.length];
+        var lists = new HashMap<String, IntList>();
+        for (int i = 0; i < movies.length; i++) {
+            titles[i] = normalize(movies[i].name());
+            var trigrams = trigrams(titles[i]);
+            trigramCounts[i] = trigrams.size();
+            for (String trigram : trigrams) {
+                lists.computeIfAbsent(trigram, t -> new IntList()).add(i);
+            }
+        }
+        var postings = new HashMap<String, int[]>(lists.size() * 2);
+        lists.forEach((trigram, list) -> postings.put(trigram, list.toArray()));
+        return new TitleTrigramIndex(movies, titles, trigramCounts, postings);
+    }
+
+    /**
+     * @return at most {@code limit} matches, most similar first
+     */
+    public List<TitleMatch> search(String query, int limit) {
+        var normalizedQuery = normalize(query);
+        var queryTrigrams = trigrams(normalizedQuery);
+        if (queryTrigrams.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        var queryPostings = queryTrigrams.stream()
+                .map(postings::get)
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparingInt(postingList -> postingList.length))
+                .toArray(int[][]::new);
+        if (queryPostings.length == 0) {
+            return List.of();
+        }
+        // 2o / (q + d) >= s with d >= o requires an overlap o >= s q / (2 - s),
+        // so a qualifying title holds at least one of the rarest lists and the longest ones can be skipped
+        var minOverlap = Math.max(1, (int) Math.ceil(MIN_SIMILARITY * queryTrigrams.size() / (2 - MIN_SIMILARITY)));
+        var skipped = Math.min(minOverlap - 1, queryPostings.length - 1);
+        var mergedLists = queryPostings.length - skipped;
+
+        // keep the best candidates by trigram similarity, worst on top so it can be replaced
+        var candidateCount = limit * CANDIDATES_PER_RESULT;
+        var candidates = new PriorityQueue<Candidate>(Comparator.comparingDouble(Candidate::similarity));
+        var merge = new PostingMerge(Arrays.copyOf(queryPostings, mergedLists));
+        while (merge.hasNext()) {
+            var position = merge.next();
+            var overlap = merge.lastCount();
+            var threshold = candidates.size() < candidateCount ? MIN_SIMILARITY : candidates.peek().similarity();
+            // the best this title can still reach if it holds every skipped trigram
+            var titleTrigrams = queryTrigrams.size() + trigramCounts[position];
+            if (2.0 * (overlap + skipped) / titleTrigrams < threshold) {
+                continue;
+            }
+            for (int i = mergedLists; i < queryPostings.length; i++) {
+                if (Arrays.binarySearch(queryPostings[i], position) >= 0) {
+                    overlap++;
+                }
+            }
+            var similarity = 2.0 * overlap / titleTrigrams;
+            if (similarity < threshold) {
+                continue;
+            }
+            if (candidates.size() < candidateCount) {
+                candidates.add(new Candidate(position, similarity));
+            } else if (similarity > candidates.peek().similarity()) {
+                candidates.poll();
+                candidates.add(new Candidate(position, similarity));
+            }
+        }
+
+        var matches = new ArrayList<TitleMatch>(candidates.size());
+        for (Candidate candidate : candidates) {
+            matches.add(new TitleMatch(movies[candidate.position()], candidate.similarity(),
+                    editDistance(normalizedQuery, titles[candidate.position()])));
+        }
+        matches.sort(Comparator.comparingDouble(TitleMatch::similarity).reversed()
+                .thenComparingInt(TitleMatch::editDistance));
+        return matches.size() > limit ? List.copyOf(matches.subList(0, limit)) : matches;
+    }
+
+    private record Candidate(int position, double similarity) {
+    }
+
+    static String normalize(String text) {
+        return String.join(" ", text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")).trim();
+    }
+
+    static Set<String> trigrams(String normalizedText) {
+        var trigrams = new LinkedHashSet<String>();
+        for (String word : normalizedText.split(" ")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            var padded = " " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+
+    static int editDistance(String a, String b) {
+        var previous = new int[b.length() + 1];
+        var current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                var substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            var swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    /**
+     * K-way merge of ascending posting lists that reports each position once, with the number of lists holding it.
+     */
+    private static final class PostingMerge {
+        private final int[][] lists;
+        private final int[] cursors;
+        private final int[] heap;
+        private int size;
+        private int lastCount;
+
+        PostingMerge(int[][] lists) {
+            this.lists = lists;
+            this.cursors = new int[lists.length];
+            this.heap = new int[lists.length];
+            for (int i = 0; i < lists.length; i++) {
+                if (lists[i].length > 0) {
+                    heap[size++] = i;
+                }
+            }
+            for (int i = size / 2 - 1; i >= 0; i--) {
+                siftDown(i);
+            }
+        }
+
+        boolean hasNext() {
+            return size > 0;
+        }
+
+        int next() {
+            var position = head(heap[0]);
+            lastCount = 0;
+            while (size > 0 && head(heap[0]) == position) {
+                lastCount++;
+                var list = heap[0];
+                if (++cursors[list] == lists[list].length) {
+                    heap[0] = heap[--size];
+                }
+                siftDown(0);
+            }
+            return position;
+        }
+
+        int lastCount() {
+            return lastCount;
+        }
+
+        private int head(int list) {
+            return lists[list][cursors[list]];
+        }
+
+        private void siftDown(int index) {
+            var list = heap[index];
+            var value = size > index ? head(list) : 0;
+            while (true) {
+                var child = 2 * index + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && head(heap[child + 1]) < head(heap[child])) {
+                    child++;
+                }
+                if (head(heap[child]) >= value) {
+                    break;
+                }
+                heap[index] = heap[child];
+                index = child;
+            }
+            heap[index] = list;
+        }
+    }
+
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,456 @@
+package com.modernjava.http.server;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.modernjava.http.Movie;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Local stand-in for the movies backend, replacing {@code python3 -m http.server 8000}.
+ * It serves the same paths as the python server, so {@code MoviesClient} works unchanged:
+ * <ul>
+ *   <li>{@code movies.json}: the catalog, sent with {@link FileChannel#transferTo}, gzip or deflate encoded
+ *   when the client prefers it, plain otherwise, with ETag revalidation</li>
+ *   <li>{@code movie_by_id.json?movie_id=<id>}: a single movie from the catalog</li>
+ *   <li>{@code movies_by_ids.json?ids=<id>,<id>,...}: a JSON array with the movies found for the ids</li>
+ *   <li>{@code movies_delta.json?since=<version>}: the changes made with {@link #upsertMovie(Movie)} and
+ *   {@link #deleteMovie(long)} after the version, or the whole catalog for version 0, a version of another
+ *   {@code epoch} (server instance) or one older than the last {@link #MAX_CHANGES} changes</li>
+ * </ul>
+ * Changes are visible through every endpoint except {@code movies.json}, which always serves the file.
+ * Every exchange runs on its own virtual thread and responses always carry a content length,
+ * so connections are kept alive. Latency and errors can be injected for tests and benchmarks.
+ */
+public class MoviesServer implements AutoCloseable {
+
+    public static final String RESOURCES_PATH = "/explore-latest-java-features/src/main/resources/";
+
+    private static final String GZIP = "gzip";
+    private static final String DEFLATE = "deflate";
+    private static final String IDENTITY = "identity";
+    /**
+     * Movies whose latest change is remembered; readers further behind are sent the whole catalog.
+     */
+    public static final int MAX_CHANGES = 10_000;
+
+    private final HttpServer httpServer;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+
+    private final Path moviesFile;
+    private final Path gzippedMoviesFile;
+    private final Path deflatedMoviesFile;
+    private final Path movieByIdFile;
+    private final String moviesEtag;
+    private final Map<Long, byte[]> moviesById = new ConcurrentHashMap<>();
+    private final String epoch = UUID.randomUUID().toString();
+    private final Map<Long, Change> changeLog = new LinkedHashMap<>();
+    private long version = 1;
+    private long forgottenVersion;
+
+    private volatile Duration latency = Duration.ZERO;
+    private volatile double errorRate;
+
+    /**
+     * @param port              port to listen on, 0 picks a free port
+     * @param resourceDirectory directory containing movies.json and movie_by_id.json
+     */
+    public MoviesServer(int port, Path resourceDirectory) throws IOException {
+        this.moviesFile = resourceDirectory.resolve("movies.json");
+        this.movieByIdFile = resourceDirectory.resolve("movie_by_id.json");
+        this.gzippedMoviesFile = compress(moviesFile, ".gz", GZIPOutputStream::new);
+        this.deflatedMoviesFile = compress(moviesFile, ".zz", DeflaterOutputStream::new);
+        this.moviesEtag = "\"" + Files.size(moviesFile) + "-" + Files.getLastModifiedTime(moviesFile).toMillis() + "\"";
+
+        List<Movie> movies = objectMapper.readValue(moviesFile.toFile(), new TypeReference<>() { });
+        for (Movie movie : movies) {
+            moviesById.put(movie.movie_id().longValue(), objectMapper.writeValueAsBytes(movie));
+        }
+
+        this.httpServer = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        httpServer.setExecutor(executor);
+        httpServer.createContext(RESOURCES_PATH, this::handle);
+    }
+
+    public static void main(String[] args) throws IOException {
+        var port = args.length > 0 ? Integer.parseInt(args[0]) : 8000;
+        var resourceDirectory = Path.of(args.length > 1 ? args[1] : "explore-latest-java-features/src/main/resources");
+        var moviesServer = new MoviesServer(port, resourceDirectory);
+        moviesServer.start();
+        System.out.println("Serving movies on " + moviesServer.baseUrl());
+    }
+
+    public void start() {
+        httpServer.start();
+    }
+
+    public int port() {
+        return httpServer.getAddress().getPort();
+    }
+
+    /**
+     * @return the URL to pass to {@code new MoviesClient(baseUrl)}
+     */
+    public String baseUrl() {
+        return "http://127.0.0.1:" + port() + RESOURCES_PATH;
+    }
+
+    /**
+     * Delays every response by the given latency.
+     */
+    public void injectLatency(Duration latency) {
+        this.latency = latency;
+    }
+
+    /**
+     * Answers the given fraction of requests, between 0 and 1, with 503 Service Unavailable.
+     */
+    public void injectErrors(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    /**
+     * Adds or replaces a movie in the catalog.
+     *
+     * @return the new catalog version
+     */
+    public synchronized long upsertMovie(Movie movie) throws IOException {
+        var movieId = movie.movie_id().longValue();
+        moviesById.put(movieId, objectMapper.writeValueAsBytes(movie));
+        logChange(movieId, false);
+        return version;
+    }
+
+    /**
+     * Removes a movie from the catalog.
+     *
+     * @return the new catalog version
+     */
+    public synchronized long deleteMovie(long movieId) {
+        moviesById.remove(movieId);
+        logChange(movieId, true);
+        return version;
+    }
+
+    /**
+     * Keeps only the latest change of every movie, in version order, and forgets the oldest ones beyond
+     * {@link #MAX_CHANGES}.
+     */
+    private void logChange(long movieId, boolean deleted) {
+        changeLog.remove(movieId);
+        changeLog.put(movieId, new Change(++version, movieId, deleted));
+        if (changeLog.size() > MAX_CHANGES) {
+            var oldest = changeLog.values().iterator();
+            forgottenVersion = oldest.next().version();
+            oldest.remove();
+        }
+    }
+
+    private record Change(long version, long movieId, boolean deleted) {
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!latency.isZero()) {
+                Thread.sleep(latency);
+            }
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                sendBytes(exchange, 503, "{\"error\": \"injected failure\"}".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            var resource = exchange.getRequestURI().getPath().substring(RESOURCES_PATH.length());
+            switch (resource) {
+                case "movies.json" -> sendMovies(exchange);
+                case "movie_by_id.json" -> sendMovieById(exchange);
+                case "movies_by_ids.json" -> sendMoviesByIds(exchange);
+                case "movies_delta.json" -> sendMoviesDelta(exchange);
+                default -> sendBytes(exchange, 404, "{\"error\": \"not found\"}".getBytes(StandardCharsets.UTF_8));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Every content coding is a different representation, so each one has its own strong ETag.
+     */
+    private void sendMovies(HttpExchange exchange) throws IOException {
+        var headers = exchange.getResponseHeaders();
+        headers.set("Vary", "Accept-Encoding");
+        var contentCoding = contentCoding(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+        if (contentCoding == null) {
+            sendBytes(exchange, 406, "{\"error\": \"no acceptable content coding\"}".getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        var etag = IDENTITY.equals(contentCoding)
+                ? moviesEtag
+                : moviesEtag.substring(0, moviesEtag.length() - 1) + "-" + contentCoding + "\"";
+        headers.set("ETag", etag);
+        if (matches(exchange.getRequestHeaders().getFirst("If-None-Match"), etag)) {
+            exchange.sendResponseHeaders(304, -1);
+            return;
+        }
+        switch (contentCoding) {
+            case GZIP -> {
+                headers.set("Content-Encoding", GZIP);
+                sendFile(exchange, gzippedMoviesFile);
+            }
+            case DEFLATE -> {
+                headers.set("Content-Encoding", DEFLATE);
+                sendFile(exchange, deflatedMoviesFile);
+            }
+            default -> sendFile(exchange, moviesFile);
+        }
+    }
+
+    private void sendMovieById(HttpExchange exchange) throws IOException {
+        var movieId = queryParameters(exchange).get("movie_id");
+        if (movieId == null) {
+            sendFile(exchange, movieByIdFile);
+            return;
+        }
+        byte[] movie;
+        try {
+            movie = moviesById.get(Long.parseLong(movieId));
+        } catch (NumberFormatException e) {
+            sendBytes(exchange, 400, "{\"error\": \"invalid movie_id\"}".getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        if (movie == null) {
+            sendBytes(exchange, 404, "{\"error\": \"movie not found\"}".getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        sendBytes(exchange, 200, movie);
+    }
+
+    private void sendMoviesByIds(HttpExchange exchange) throws IOException {
+        var ids = queryParameters(exchange).getOrDefault("ids", "");
+        var body = new ByteArrayOutputStream();
+        body.write('[');
+        var first = true;
+        for (String id : ids.split(",")) {
+            byte[] movie;
+            try {
+                movie = id.isBlank() ? null : moviesById.get(Long.parseLong(id.trim()));
+            } catch (NumberFormatException e) {
+                sendBytes(exchange, 400, "{\"error\": \"invalid id\"}".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            if (movie != null) {
+                if (!first) {
+                    body.write(',');
+                }
+                body.write(movie);
+                first = false;
+            }
+        }
+        body.write(']');
+        sendBytes(exchange, 200, body.toByteArray());
+    }
+
+    /**
+     * Collapses the changes after {@code since} to the latest state of every movie they touched,
+     * under the same lock as the updates, so a delta never contains half of a change.
+     * Sends the whole catalog as a resync instead when {@code since} is 0, comes from another epoch,
+     * is ahead of this server or is older than the oldest change still remembered.
+     */
+    private void sendMoviesDelta(HttpExchange exchange) throws IOException {
+        long since;
+        try {
+            since = Long.parseLong(queryParameters(exchange).getOrDefault("since", "0"));
+        } catch (NumberFormatException e) {
+            sendBytes(exchange, 400, "{\"error\": \"invalid since\"}".getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        var clientEpoch = queryParameters(exchange).get("epoch");
+        var body = new ByteArrayOutputStream();
+        synchronized (this) {
+            var upserts = new ArrayList<byte[]>();
+            var deletes = new ArrayList<Long>();
+            var resync = since == 0 || (clientEpoch != null && !clientEpoch.equals(epoch))
+                    || since > version || since < forgottenVersion;
+            if (resync) {
+                upserts.addAll(moviesById.values());
+            } else {
+                for (Change change : changeLog.values()) {
+                    if (change.version() <= since) {
+                        continue;
+                    }
+                    if (change.deleted()) {
+                        deletes.add(change.movieId());
+                    } else {
+                        upserts.add(moviesById.get(change.movieId()));
+                    }
+                }
+            }
+            body.write(("{\"epoch\":\"" + epoch + "\",\"version\":" + version + ",\"resync\":" + resync + ",\"upserts\":[")
+                    .getBytes(StandardCharsets.UTF_8));
+            for (int i = 0; i < upserts.size(); i++) {
+                if (i > 0) {
+                    body.write(',');
+                }
+                body.write(upserts.get(i));
+            }
+            body.write(("],\"deletes\":[" + deletes.stream().map(String::valueOf).collect(Collectors.joining(",")) + "]}").getBytes(StandardCharsets.UTF_8));
+        }
+        sendBytes(exchange, 200, body.toByteArray());
+    }
+
+    /**
+     * Hands the file to the response with {@link FileChannel#transferTo}. The exchange only exposes an
+     * {@link OutputStream}, so the JDK copies through a transfer buffer instead of using sendfile,
+     * but the file is never read into a heap array.
+     */
+    private static void sendFile(HttpExchange exchange, Path file) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        try (var channel = FileChannel.open(file, READ)) {
+            var size = channel.size();
+            exchange.sendResponseHeaders(200, size);
+            var target = Channels.newChannel(exchange.getResponseBody());
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+        }
+    }
+
+    private static void sendBytes(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    private static Map<String, String> queryParameters(HttpExchange exchange) {
+        var query = exchange.getRequestURI().getRawQuery();
+        var parameters = new HashMap<String, String>();
+        if (query == null) {
+            return parameters;
+        }
+        for (String parameter : query.split("&")) {
+            var separator = parameter.indexOf('=');
+            if (separator > 0) {
+                parameters.put(URLDecoder.decode(parameter.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(parameter.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    /**
+     * Picks the content coding with the highest {@code q} in the Accept-Encoding header, preferring gzip, then
+     * deflate, then identity on a tie. Codings not listed get the {@code q} of {@code *}, identity is acceptable
+     * unless refused and a missing header accepts identity only.
+     *
+     * @return {@code gzip}, {@code deflate} or {@code identity}, or null if all of them are refused
+     */
+    static String contentCoding(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return IDENTITY;
+        }
+        var qualities = new HashMap<String, Double>();
+        for (String element : acceptEncoding.split(",")) {
+            var parameters = element.split(";");
+            var coding = parameters[0].trim().toLowerCase(Locale.ROOT);
+            if (coding.isEmpty()) {
+                continue;
+            }
+            var quality = 1.0;
+            for (int i = 1; i < parameters.length; i++) {
+                var parameter = parameters[i].trim();
+                var separator = parameter.indexOf('=');
+                if (separator > 0 && parameter.substring(0, separator).trim().equalsIgnoreCase("q")) {
+                    quality = quality(parameter.substring(separator + 1).trim());
+                }
+            }
+            qualities.merge(coding, quality, Math::max);
+        }
+        var any = qualities.get("*");
+        String best = null;
+        var bestQuality = 0.0;
+        for (String coding : List.of(GZIP, DEFLATE, IDENTITY)) {
+            var quality = qualities.getOrDefault(coding, any != null ? any : IDENTITY.equals(coding) ? 1.0 : 0.0);
+            if (quality > bestQuality) {
+                best = coding;
+                bestQuality = quality;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return the qvalue, or 0 if it is not a number between 0 and 1, so a malformed weight never selects a coding
+     */
+    private static double quality(String qvalue) {
+        try {
+            var quality = Double.parseDouble(qvalue);
+            return quality >= 0 && quality <= 1 ? quality : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            var tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private interface Compressor {
+        OutputStream wrap(OutputStream out) throws IOException;
+    }
+
+    private static Path compress(Path file, String suffix, Compressor compressor) throws IOException {
+        var compressedFile = Files.createTempFile("movies", ".json" + suffix);
+        compressedFile.toFile().deleteOnExit();
+        try (var out = compressor.wrap(Files.newOutputStream(compressedFile))) {
+            Files.copy(file, out);
+        }
+        return compressedFile;
+    }
+
+    @Override
+    public void close() {
+        httpServer.stop(0);
+        executor.close();
+    }
+}
@@ -0,0 +1,182 @@
+package com.modernjava.http.store;
+
+import com.modernjava.http.Movie;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.function.Consumer;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Binary, memory-mapped copy of a movie catalog for warm starts.
+ * {@link #open(Path)} only maps the file; movies are decoded on lookup, so opening takes
+ * the same time for ten movies or ten million.
+ *
+ * <p>Layout, big-endian:</p>
+ * <pre>
+ * header   magic "MVCS", version, record count, string table offset
+ * records  RECORD_SIZE bytes per movie, sorted by movie id:
+ *          movie id (long), release date epoch day (long), year (int),
+ *          name offset, name length, cast offset, cast length (int)
+ * strings  UTF-8 bytes of every distinct name and cast
+ * </pre>
+ * Missing values are stored as {@link #NULL_INT} and {@link #NULL_LONG}.
+ * A single mapping is limited to 2 GB, records and strings included; {@link #write} refuses larger catalogs.
+ */
+public class CatalogSnapshot implements MovieCatalog {
+
+    private static final int MAGIC = 0x4D564353;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 4 + 8;
+    static final int RECORD_SIZE = 8 + 8 + 4 + 4 + 4 + 4 + 4;
+    private static final int NULL_INT = Integer.MIN_VALUE;
+    private static final long NULL_LONG = Long.MIN_VALUE;
+
+    private final ByteBuffer buffer;
+    private final int size;
+    private final int stringTableOffset;
+
+    private CatalogSnapshot(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a catalog snapshot");
+        }
+        this.size = buffer.getInt(8);
+        this.stringTableOffset = Math.toIntExact(buffer.getLong(12));
+    }
+
+    public static CatalogSnapshot open(Path file) throws IOException {
+        try (var channel = FileChannel.open(file, READ)) {
+            return new CatalogSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Writes the catalog to a temporary file of its own and moves it over {@code file}, so a reader never maps
+     * a partially written snapshot and concurrent writers never share a file. An existing mapping of the old file stays valid.
+     *
+     * @throws IOException if the snapshot would exceed the 2 GB a single mapping can address
+     */
+    public static void write(MovieCatalog catalog, Path file) throws IOException {
+        var movies = new ArrayList<Movie>(catalog.size());
+        catalog.forEach(movies::add);
+        movies.sort(Comparator.comparingLong(movie -> movie.movie_id().longValue()));
+
+        if (movies.size() > (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE) {
+            throw new IOException(movies.size() + " movies do not fit in a 2 GB snapshot");
+        }
+        var records = ByteBuffer.allocate(movies.size() * RECORD_SIZE);
+        var maxStringTableSize = Integer.MAX_VALUE - HEADER_SIZE - records.capacity();
+        var strings = new HashMap<String, Integer>();
+        var stringTable = new ArrayList<byte[]>();
+        var stringTableSize = 0;
+        for (Movie movie : movies) {
+            records.putLong(movie.movie_id().longValue());
+            records.putLong(movie.release_date() == null ? NULL_LONG : movie.release_date().toEpochDay());
+            records.putInt(movie.year() == null ? NULL_INT : movie.year());
+            for (String value : new String[]{movie.name(), movie.cast()}) {
+                if (value == null) {
+                    records.putInt(NULL_INT).putInt(0);
+                    continue;
+                }
+                var bytes = value.getBytes(StandardCharsets.UTF_8);
+                var offset = strings.get(value);
+                if (offset == null) {
+                    if (bytes.length > maxStringTableSize - stringTableSize) {
+                        throw new IOException("String table of " + movies.size() + " movies does not fit in a 2 GB snapshot");
+                    }
+                    offset = stringTableSize;
+                    strings.put(value, offset);
+                    stringTable.add(bytes);
+                    stringTableSize += bytes.length;
+                }
+                records.putInt(offset).putInt(bytes.length);
+            }
+        }
+
+        var tempFile = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile), 64 * 1024))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(movies.size());
+                out.writeLong(HEADER_SIZE + (long) records.capacity());
+                out.write(records.array());
+                for (byte[] bytes : stringTable) {
+                    out.write(bytes);
+                }
+            }
+            Files.move(tempFile, file, REPLACE_EXISTING, ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    @Override
+    public Movie get(long movieId) {
+        var low = 0;
+        var high = size - 1;
+        while (low <= high) {
+            var middle = (low + high) >>> 1;
+            var middleId = buffer.getLong(recordOffset(middle));
+            if (middleId < movieId) {
+                low = middle + 1;
+            } else if (middleId > movieId) {
+                high = middle - 1;
+            } else {
+                return movieAt(middle);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void forEach(Consumer<Movie> action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(movieAt(i));
+        }
+    }
+
+    private Movie movieAt(int index) {
+        var offset = recordOffset(index);
+        var releaseDate = buffer.getLong(offset + 8);
+        var year = buffer.getInt(offset + 16);
+        return new Movie(
+                (double) buffer.getLong(offset),
+                string(buffer.getInt(offset + 20), buffer.getInt(offset + 24)),
+                string(buffer.getInt(offset + 28), buffer.getInt(offset + 32)),
+                year == NULL_INT ? null : year,
+                releaseDate == NULL_LONG ? null : LocalDate.ofEpochDay(releaseDate));
+    }
+
+    private String string(int offset, int length) {
+        if (offset == NULL_INT) {
+            return null;
+        }
+        var bytes = new byte[length];
+        buffer.get(stringTableOffset + offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int recordOffset(int index) {
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+}
@@ -0,0 +1,74 @@
+package com.modernjava.http.store;
+
+import com.modernjava.http.MovieDelta;
+import com.modernjava.http.MoviesClient;
+
+import java.util.Objects;
+
+/**
+ * Keeps a {@link MovieStore} up to date by pulling only the changes since the last applied version.
+ * Each delta is applied with {@link MovieStore#apply}, so readers see either the previous
+ * version of the catalog or the new one, never a partially applied delta.
+ *
+ * <p>Versions only count within one server epoch: when the epoch changes, for example after a server restart,
+ * or the server reports a version below ours, the whole catalog is fetched again and replaces the store.</p>
+ */
+public class DeltaSync {
+
+    /**
+     * Source of deltas, usually {@link MoviesClient#retrieveDelta(String, long)}.
+     */
+    @FunctionalInterface
+    public interface DeltaSource {
+        MovieDelta retrieveDelta(String epoch, long sinceVersion);
+    }
+
+    private final DeltaSource deltaSource;
+    private final MovieStore movieStore;
+    private String epoch;
+    private long version;
+
+    public DeltaSync(MoviesClient moviesClient, MovieStore movieStore) {
+        this(moviesClient::retrieveDelta, movieStore, null, 0);
+    }
+
+    /**
+     * @param epoch   epoch {@code movieStore} was synced from, null if unknown
+     * @param version version {@code movieStore} is already at, 0 for an empty store
+     */
+    public DeltaSync(DeltaSource deltaSource, MovieStore movieStore, String epoch, long version) {
+        this.deltaSource = deltaSource;
+        this.movieStore = movieStore;
+        this.epoch = epoch;
+        this.version = version;
+    }
+
+    /**
+     * Fetches and applies the next delta.
+     *
+     * @return the applied delta
+     */
+    public synchronized MovieDelta sync() {
+        var delta = deltaSource.retrieveDelta(epoch, version);
+        if (!delta.resync() && (!Objects.equals(delta.epoch(), epoch) || delta.version() < version)) {
+            // our version means nothing to this server
+            delta = deltaSource.retrieveDelta(null, 0);
+        }
+        if (delta.resync()) {
+            movieStore.replace(delta.upserts());
+        } else if (delta.version() > version) {
+            movieStore.apply(delta.upserts(), delta.deletes());
+        }
+        epoch = delta.epoch();
+        version = delta.version();
+        return delta;
+    }
+
+    public synchronized String epoch() {
+        return epoch;
+    }
+
+    public synchronized long version() {
+        return version;
+    }
+}
@@ -0,0 +1,20 @@
+package com.modernjava.http.store;
+
+import com.modernjava.http.Movie;
+
+import java.util.function.Consumer;
+
+/**
+ * Read-only view of a movie catalog keyed by movie id.
+ */
+public interface MovieCatalog {
+
+    /**
+     * @return the movie, or {@code null} if the catalog does not contain it
+     */
+    Movie get(long movieId);
+
+    int size();
+
+    void forEach(Consumer<Movie> action);
+}
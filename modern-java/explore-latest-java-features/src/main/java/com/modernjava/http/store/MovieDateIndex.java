@@ -0,0 +1,118 @@
+package com.modernjava.http.store;
+
+import com.modernjava.http.Movie;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Secondary index over {@code Movie.release_date} and {@code Movie.year} for range queries.
+ * Each key is kept in a sorted {@code int[]} (epoch day or year) next to a permutation of the movie ids,
+ * so a range is two binary searches and a walk over the matching slice in either direction;
+ * results come out already ordered, without filtering or sorting the catalog.
+ *
+ * <p>The index is immutable and resolves movies through the catalog it was built from.
+ * Build a new one after the catalog changes.</p>
+ */
+public class MovieDateIndex {
+
+    private final MovieCatalog catalog;
+    private final SortedKeys byReleaseDate;
+    private final SortedKeys byYear;
+
+    private MovieDateIndex(MovieCatalog catalog, SortedKeys byReleaseDate, SortedKeys byYear) {
+        this.catalog = catalog;
+        this.byReleaseDate = byReleaseDate;
+        this.byYear = byYear;
+    }
+
+    public static MovieDateIndex build(MovieCatalog catalog) {
+        var movies = new ArrayList<Movie>(catalog.size());
+        catalog.forEach(movies::add);
+        // equal keys come out in movie id order, reversed for newest first
+        movies.sort(Comparator.comparingLong(movie -> movie.movie_id().longValue()));
+        return new MovieDateIndex(catalog,
+                SortedKeys.of(movies, movie -> movie.release_date() == null ? null : (int) movie.release_date().toEpochDay()),
+                SortedKeys.of(movies, Movie::year));
+    }
+
+    /**
+     * @return the movies released between {@code from} and {@code to}, both inclusive, at most {@code limit}
+     */
+    public List<Movie> releasedBetween(LocalDate from, LocalDate to, boolean newestFirst, int limit) {
+        return movies(byReleaseDate.range((int) from.toEpochDay(), (int) to.toEpochDay(), newestFirst, limit));
+    }
+
+    /**
+     * @return the movies of the years {@code fromYear} to {@code toYear}, both inclusive, at most {@code limit}
+     */
+    public List<Movie> releasedInYears(int fromYear, int toYear, boolean newestFirst, int limit) {
+        return movies(byYear.range(fromYear, toYear, newestFirst, limit));
+    }
+
+    private List<Movie> movies(long[] movieIds) {
+        var movies = new ArrayList<Movie>(movieIds.length);
+        for (long movieId : movieIds) {
+            var movie = catalog.get(movieId);
+            if (movie != null) {
+                movies.add(movie);
+            }
+        }
+        return movies;
+    }
+
+    /**
+     * Keys in ascending order, and at the same position the id of the movie each key belongs to.
+     * Movies without a key are left out.
+     */
+    private record SortedKeys(int[] keys, long[] movieIds) {
+
+        static SortedKeys of(List<Movie> movies, Function<Movie, Integer> key) {
+            // key in the high half, position in the low half: sorting the longs sorts by key, then position
+            var packed = new long[movies.size()];
+            var count = 0;
+            for (int i = 0; i < movies.size(); i++) {
+                var value = key.apply(movies.get(i));
+                if (value != null) {
+                    packed[count++] = ((long) value << 32) | i;
+                }
+            }
+            Arrays.sort(packed, 0, count);
+            var keys = new int[count];
+            var movieIds = new long[count];
+            for (int i = 0; i < count; i++) {
+                keys[i] = (int) (packed[i] >> 32);
+                movieIds[i] = movies.get((int) packed[i]).movie_id().longValue();
+            }
+            return new SortedKeys(keys, movieIds);
+        }
+
+        long[] range(int from, int to, boolean descending, int limit) {
+            var start = firstAtLeast(from);
+            var end = firstAtLeast(to + 1L);
+            var result = new long[Math.max(0, Math.min(end - start, limit))];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = movieIds[descending ? end - 1 - i : start + i];
+            }
+            return result;
+        }
+
+        private int firstAtLeast(long key) {
+            var low = 0;
+            var high = keys.length;
+            while (low < high) {
+                var middle = (low + high) >>> 1;
+                if (keys[middle] < key) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.modernjava.http.store;
+
+import com.modernjava.http.Movie;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Movie catalog keyed by the primitive movie id.
+ * Movies live in an open-addressing table of parallel {@code long[]} keys and {@code Movie[]} values,
+ * so an entry costs a key and a reference instead of a {@code HashMap.Node} and a boxed {@code Double}.
+ *
+ * <p>Readers go through an immutable {@link Snapshot} and never lock. {@link #apply(Collection, long[])}
+ * builds the next snapshot off to the side and publishes it with a single volatile write,
+ * so a reader sees either all of an update or none of it.</p>
+ */
+public class MovieStore implements MovieCatalog {
+
+    private volatile Snapshot snapshot;
+
+    public MovieStore() {
+        this.snapshot = new Snapshot(Snapshot.MIN_CAPACITY);
+    }
+
+    private MovieStore(Snapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Bulk loads a catalog, for example {@code MovieStore.load(moviesClient.retrieveAllMoviesStream())}.
+     * Only the table is materialized, never an intermediate list of movies.
+     */
+    public static MovieStore load(Stream<Movie> movies) {
+        try (movies) {
+            var snapshot = new Snapshot(Snapshot.MIN_CAPACITY);
+            movies.forEach(movie -> {
+                snapshot.ensureCapacity(snapshot.size + 1);
+                snapshot.put(movie);
+            });
+            return new MovieStore(snapshot);
+        }
+    }
+
+    @Override
+    public Movie get(long movieId) {
+        return snapshot.get(movieId);
+    }
+
+    @Override
+    public int size() {
+        return snapshot.size();
+    }
+
+    @Override
+    public void forEach(Consumer<Movie> action) {
+        snapshot.forEach(action);
+    }
+
+    /**
+     * @return the current contents, unaffected by later updates
+     */
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Applies the upserts and deletes as one atomic change. Copies the table, so batch changes together
+     * rather than applying them one movie at a time.
+     */
+    public synchronized void apply(Collection<Movie> upserts, long[] deletedMovieIds) {
+        var next = snapshot.copy(snapshot.size + upserts.size());
+        for (long movieId : deletedMovieIds) {
+            next.remove(movieId);
+        }
+        for (Movie movie : upserts) {
+            next.put(movie);
+        }
+        snapshot = next;
+    }
+
+    /**
+     * Atomically replaces the whole catalog with {@code movies}.
+     */
+    public synchronized void replace(Collection<Movie> movies) {
+        var next = new Snapshot(Snapshot.capacityFor(movies.size()));
+        movies.forEach(next::put);
+        snapshot = next;
+    }
+
+    public void put(Movie movie) {
+        apply(List.of(movie), new long[0]);
+    }
+
+    /**
+     * Immutable once published. Linear probing with a load factor of at most {@link #MAX_LOAD_FACTOR};
+     * removals shift the following entries back, so no tombstones are needed.
+     */
+    public static final class Snapshot implements MovieCatalog {
+
+        static final int MIN_CAPACITY = 16;
+        static final double MAX_LOAD_FACTOR = 0.6;
+
+        private long[] keys;
+        private Movie[] values;
+        private int size;
+
+        private Snapshot(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new Movie[capacity];
+        }
+
+        @Override
+        public Movie get(long movieId) {
+            var mask = keys.length - 1;
+            for (int slot = slot(movieId, mask); values[slot] != null; slot = (slot + 1) & mask) {
+                if (keys[slot] == movieId) {
+                    return values[slot];
+                }
+            }
+            return null;
+        }
+
+        public boolean contains(long movieId) {
+            return get(movieId) != null;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void forEach(Consumer<Movie> action) {
+            for (Movie movie : values) {
+                if (movie != null) {
+                    action.accept(movie);
+                }
+            }
+        }
+
+        private Snapshot copy(int expectedSize) {
+            var copy = new Snapshot(capacityFor(Math.max(expectedSize, size)));
+            if (copy.keys.length == keys.length) {
+                copy.keys = keys.clone();
+                copy.values = values.clone();
+                copy.size = size;
+            } else {
+                forEach(copy::put);
+            }
+            return copy;
+        }
+
+        private void ensureCapacity(int expectedSize) {
+            if (expectedSize > keys.length * MAX_LOAD_FACTOR) {
+                var oldValues = values;
+                keys = new long[keys.length * 2];
+                values = new Movie[keys.length];
+                size = 0;
+                for (Movie movie : oldValues) {
+                    if (movie != null) {
+                        put(movie);
+                    }
+                }
+            }
+        }
+
+        private void put(Movie movie) {
+            var movieId = movie.movie_id().longValue();
+            var mask = keys.length - 1;
+            var slot = slot(movieId, mask);
+            while (values[slot] != null && keys[slot] != movieId) {
+                slot = (slot + 1) & mask;
+            }
+            if (values[slot] == null) {
+                size++;
+            }
+            keys[slot] = movieId;
+            values[slot] = movie;
+        }
+
+        private void remove(long movieId) {
+            var mask = keys.length - 1;
+            var slot = slot(movieId, mask);
+            while (values[slot] != null && keys[slot] != movieId) {
+                slot = (slot + 1) & mask;
+            }
+            if (values[slot] == null) {
+                return;
+            }
+            size--;
+            // shift back every following entry that probed past the freed slot
+            var free = slot;
+            for (int next = (free + 1) & mask; values[next] != null; next = (next + 1) & mask) {
+                var home = slot(keys[next], mask);
+                if (((next - home) & mask) >= ((next - free) & mask)) {
+                    keys[free] = keys[next];
+                    values[free] = values[next];
+                    free = next;
+                }
+            }
+            keys[free] = 0;
+            values[free] = null;
+        }
+
+        private static int capacityFor(int expectedSize) {
+            var capacity = MIN_CAPACITY;
+            while (expectedSize > capacity * MAX_LOAD_FACTOR) {
+                capacity *= 2;
+            }
+            return capacity;
+        }
+
+        private static int slot(long movieId, int mask) {
+            var hash = movieId * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+    }
+}
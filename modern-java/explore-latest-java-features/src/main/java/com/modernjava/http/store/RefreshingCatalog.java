@@ -0,0 +1,94 @@
+package com.modernjava.http.store;
+
+import com.modernjava.http.Movie;
+import com.modernjava.http.MoviesClient;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Catalog that serves from the last {@link CatalogSnapshot} as soon as it is created,
+ * and switches to a freshly downloaded {@link MovieStore} once {@link #refresh()} completes.
+ * Every refresh writes a new snapshot for the next start.
+ */
+public class RefreshingCatalog implements MovieCatalog {
+
+    private static final Executor VIRTUAL_THREADS = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Supplier<Stream<Movie>> source;
+    private final Path snapshotFile;
+    private final AtomicReference<CompletableFuture<MovieCatalog>> inFlight = new AtomicReference<>();
+    private volatile MovieCatalog current;
+
+    public RefreshingCatalog(MoviesClient moviesClient, Path snapshotFile) throws IOException {
+        this(moviesClient::retrieveAllMoviesStream, snapshotFile);
+    }
+
+    /**
+     * @param source       streams the full catalog from the origin
+     * @param snapshotFile read on creation if it exists, rewritten after every refresh
+     */
+    public RefreshingCatalog(Supplier<Stream<Movie>> source, Path snapshotFile) throws IOException {
+        this.source = source;
+        this.snapshotFile = snapshotFile;
+        this.current = Files.exists(snapshotFile) ? CatalogSnapshot.open(snapshotFile) : new MovieStore();
+    }
+
+    /**
+     * Reloads the catalog on a virtual thread. Until the returned future completes, lookups
+     * keep being served from the previous catalog.
+     * Calls made while a reload is running join it instead of starting another, so an older download
+     * can never replace a newer catalog or snapshot.
+     */
+    public CompletableFuture<MovieCatalog> refresh() {
+        var reload = new CompletableFuture<MovieCatalog>();
+        var running = inFlight.compareAndExchange(null, reload);
+        if (running != null) {
+            return running.copy();
+        }
+        CompletableFuture.supplyAsync(this::reload, VIRTUAL_THREADS).whenComplete((movieCatalog, e) -> {
+            inFlight.set(null);
+            if (e == null) {
+                reload.complete(movieCatalog);
+            } else {
+                reload.completeExceptionally(e);
+            }
+        });
+        return reload.copy();
+    }
+
+    private MovieCatalog reload() {
+        var movieStore = MovieStore.load(source.get());
+        current = movieStore;
+        try {
+            CatalogSnapshot.write(movieStore, snapshotFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return movieStore;
+    }
+
+    @Override
+    public Movie get(long movieId) {
+        return current.get(movieId);
+    }
+
+    @Override
+    public int size() {
+        return current.size();
+    }
+
+    @Override
+    public void forEach(Consumer<Movie> action) {
+        current.forEach(action);
+    }
+}
@@ -0,0 +1,76 @@
+package com.modernjava.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MovieBatchLoaderTest {
+
+    List<List<Long>> requests = new CopyOnWriteArrayList<>();
+    List<Runnable> windowTimers = new ArrayList<>();
+
+    @Test
+    void load_staleWindowTimerDoesNotCloseTheNextBatch() {
+        var movieBatchLoader = new MovieBatchLoader(this::fetch, windowTimers::add, 2);
+
+        movieBatchLoader.load(1);
+        movieBatchLoader.load(2);
+        var third = movieBatchLoader.load(3);
+
+        assertEquals(List.of(List.of(1L, 2L)), requests);
+        assertEquals(2, windowTimers.size());
+
+        windowTimers.get(0).run();
+        assertEquals(1, requests.size());
+
+        windowTimers.get(1).run();
+        assertEquals(List.of(List.of(1L, 2L), List.of(3L)), requests);
+        assertEquals("Movie 3", third.join().name());
+    }
+
+    @Test
+    void dispatch_splitsLargeBatches() {
+        var movieBatchLoader = new MovieBatchLoader(this::fetch, windowTimers::add, 1_000);
+
+        var movies = LongStream.range(0, 450).mapToObj(movieBatchLoader::load).toList();
+        movieBatchLoader.dispatch();
+
+        assertEquals(List.of(200, 200, 50), requests.stream().map(List::size).toList());
+        movies.forEach(movie -> assertEquals(movie.join().name(), "Movie " + movie.join().movie_id().longValue()));
+    }
+
+    @Test
+    void dispatch_failsTheCallersWhenTheFetcherThrows() {
+        var failure = new IllegalArgumentException("bad request");
+        var movieBatchLoader = new MovieBatchLoader(movieIds -> {
+            throw failure;
+        }, windowTimers::add, 1_000);
+
+        var first = movieBatchLoader.load(1);
+        var second = movieBatchLoader.load(2);
+        movieBatchLoader.dispatch();
+
+        for (var movie : List.of(first, second)) {
+            var exception = assertThrows(CompletionException.class, movie::join);
+            assertSame(failure, exception.getCause());
+        }
+    }
+
+    private CompletableFuture<List<Movie>> fetch(Collection<Long> movieIds) {
+        requests.add(List.copyOf(movieIds));
+        return CompletableFuture.completedFuture(movieIds.stream()
+                .map(movieId -> new Movie((double) movieId, "Movie " + movieId, "Christian Bale", 2005, LocalDate.of(2005, 6, 15)))
+                .toList());
+    }
+}
@@ -0,0 +1,38 @@
+package com.modernjava.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MovieDeltaTest {
+
+    @Test
+    void equalsComparesTheDeletedIds() {
+        var batman = new Movie(1.0, "Batman Begins", "Christian Bale", 2005, LocalDate.of(2005, 6, 15));
+
+        var delta = new MovieDelta("epoch", 2, false, List.of(batman), new long[]{3, 4});
+
+        assertEquals(new MovieDelta("epoch", 2, false, List.of(batman), new long[]{3, 4}), delta);
+        assertEquals(new MovieDelta("epoch", 2, false, List.of(batman), new long[]{3, 4}).hashCode(), delta.hashCode());
+        assertEquals("MovieDelta[epoch=epoch, version=2, resync=false, upserts=[" + batman + "], deletes=[3, 4]]", delta.toString());
+    }
+
+    @Test
+    void cannotBeChangedAfterwards() {
+        var upserts = new ArrayList<Movie>();
+        var deletes = new long[]{3, 4};
+        var delta = new MovieDelta("epoch", 2, false, upserts, deletes);
+
+        upserts.add(new Movie(1.0, "Batman Begins", "Christian Bale", 2005, LocalDate.of(2005, 6, 15)));
+        deletes[0] = 5;
+        delta.deletes()[1] = 6;
+
+        assertEquals(List.of(), delta.upserts());
+        assertArrayEquals(new long[]{3, 4}, delta.deletes());
+    }
+}
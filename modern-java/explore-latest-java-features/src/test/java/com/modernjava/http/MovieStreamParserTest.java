@@ -0,0 +1,27 @@
+package com.modernjava.http;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MovieStreamParserTest {
+
+    ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void parse() {
+        var inputStream = getClass().getResourceAsStream("/movies.json");
+
+        try (var movies = MovieStreamParser.parse(inputStream, objectMapper)) {
+            var movieList = movies.toList();
+
+            assertEquals(10, movieList.size());
+            assertEquals("Batman Begins", movieList.get(0).name());
+            assertEquals(LocalDate.of(2006, 10, 6), movieList.get(9).release_date());
+        }
+    }
+}
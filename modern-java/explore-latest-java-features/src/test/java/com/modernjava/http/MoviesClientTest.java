@@ -1,14 +1,175 @@
 package com.modernjava.http;
 
+import com.modernjava.http.server.MoviesServer;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 //@Disabled
 public class MoviesClientTest {
 
-    MoviesClient moviesClient = new MoviesClient();
+    static MoviesServer moviesServer;
+
+    MoviesClient moviesClient = new MoviesClient(moviesServer.baseUrl());
+
+    @BeforeAll
+    static void startServer() throws Exception {
+        var resourceDirectory = Path.of(MoviesClientTest.class.getResource("/movies.json").toURI()).getParent();
+        moviesServer = new MoviesServer(0, resourceDirectory);
+        moviesServer.start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        moviesServer.close();
+    }
+
+    @AfterEach
+    void resetFaults() {
+        moviesServer.injectErrors(0);
+    }
+
+    @Test
+    void retrieveAllMoviesStream() {
+        try (var movies = moviesClient.retrieveAllMoviesStream()) {
+            assertEquals(10, movies.count());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"gzip", "deflate", "identity"})
+    void retrieveAllMoviesStream_contentEncoding(String acceptEncoding) {
+        try (var movies = moviesClient.retrieveAllMoviesStream(acceptEncoding)) {
+            assertEquals(10, movies.count());
+        }
+    }
+
+    @Test
+    void retrieveAllMoviesStream_compressedOnTheWire() {
+        try (var movies = moviesClient.retrieveAllMoviesStream("identity")) {
+            movies.forEach(movie -> { });
+        }
+        var plainBytes = moviesClient.metrics().snapshot().get("movies.json").responseBytes();
+        try (var movies = moviesClient.retrieveAllMoviesStream()) {
+            movies.forEach(movie -> { });
+        }
+        var gzippedBytes = moviesClient.metrics().snapshot().get("movies.json").responseBytes() - plainBytes;
+
+        assertTrue(gzippedBytes < plainBytes / 2, gzippedBytes + " of " + plainBytes);
+    }
+
+    @Test
+    void retrieveMovieById() {
+        var movie = moviesClient.retrieveMovieById(2);
+
+        assertNotNull(movie);
+        assertEquals("Dark Knight", movie.name());
+    }
+
+    @Test
+    void metrics() {
+        moviesClient.retrieveMovieById(2);
+        moviesClient.retrieveMovieById(3);
+        try (var movies = moviesClient.retrieveAllMoviesStream()) {
+            movies.forEach(movie -> { });
+        }
+
+        var snapshot = moviesClient.metrics().snapshot();
+        var movieById = snapshot.get("movie_by_id.json");
+        assertEquals(2, movieById.requests());
+        assertTrue(movieById.responseBytes() > 0);
+        assertTrue(movieById.p99().compareTo(movieById.p50()) >= 0);
+        assertEquals(1, snapshot.get("movies.json").requests());
+    }
+
+    @Test
+    void retrieveMovieById_hedged() throws Exception {
+        // the primary never answers until the test is over, so only the hedge to moviesServer can complete the lookup
+        var releasePrimary = new CountDownLatch(1);
+        var primaryExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        var primary = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        primary.setExecutor(primaryExecutor);
+        primary.createContext(MoviesServer.RESOURCES_PATH, exchange -> {
+            try (exchange) {
+                releasePrimary.await();
+                exchange.sendResponseHeaders(503, -1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        primary.start();
+        try {
+            var primaryBaseUrl = "http://127.0.0.1:" + primary.getAddress().getPort() + MoviesServer.RESOURCES_PATH;
+            var hedgingClient = new MoviesClient(primaryBaseUrl, HedgePolicy.p95(List.of(moviesServer.baseUrl())));
+
+            var movie = hedgingClient.retrieveMovieById(2);
+
+            assertEquals("Dark Knight", movie.name());
+            assertEquals(1, hedgingClient.hedgedRequests());
+            assertEquals(1, releasePrimary.getCount());
+        } finally {
+            releasePrimary.countDown();
+            primary.stop(0);
+            primaryExecutor.close();
+        }
+    }
+
+    @Test
+    void retrieveMoviesByIds() {
+        var movieResults = moviesClient.retrieveMoviesByIds(List.of(3L, 99L, 1L));
+
+        assertEquals(3, movieResults.size());
+        assertEquals("The Dark Knight Rises", assertInstanceOf(MovieResult.Found.class, movieResults.get(0)).movie().name());
+        assertInstanceOf(MovieResult.Failed.class, movieResults.get(1));
+        assertEquals(1L, movieResults.get(2).movieId());
+    }
+
+    @Test
+    void retrieveMoviesByIds_injectedErrors() {
+        moviesServer.injectErrors(1.0);
+
+        var movieResults = moviesClient.retrieveMoviesByIds(List.of(1L, 2L));
+
+        movieResults.forEach(movieResult -> assertInstanceOf(MovieResult.Failed.class, movieResult));
+    }
+
+    @Test
+    void hostOf_usesTheDefaultPortOfTheScheme() {
+        assertEquals("example.com:80", MoviesClient.hostOf(URI.create("http://Example.com/movies.json")));
+        assertEquals("example.com:80", MoviesClient.hostOf(URI.create("http://example.com:80/movies.json")));
+        assertEquals("example.com:443", MoviesClient.hostOf(URI.create("https://example.com/movies.json")));
+        assertEquals("example.com:8443", MoviesClient.hostOf(URI.create("https://example.com:8443/movies.json")));
+    }
+
+    @Test
+    void movieBatchLoader() {
+        var movieBatchLoader = new MovieBatchLoader(moviesClient, Duration.ofMillis(50), 100);
+
+        var batman = movieBatchLoader.load(1);
+        var avengers = movieBatchLoader.load(4);
+        var unknown = movieBatchLoader.load(99);
+        movieBatchLoader.dispatch();
 
+        assertEquals("Batman Begins", batman.join().name());
+        assertEquals("The Avengers", avengers.join().name());
+        assertTrue(unknown.handle((movie, error) -> error != null).join());
+    }
 }
@@ -0,0 +1,100 @@
+package com.modernjava.http.cache;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DiskHttpCacheTest {
+
+    private static final byte[] BODY = "[{\"movie_id\": 1}]".getBytes(StandardCharsets.UTF_8);
+
+    HttpServer server;
+    AtomicInteger fullResponses = new AtomicInteger();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/movies.json", exchange -> {
+            exchange.getResponseHeaders().set("ETag", "\"v1\"");
+            if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                fullResponses.incrementAndGet();
+                exchange.sendResponseHeaders(200, BODY.length);
+                exchange.getResponseBody().write(BODY);
+            }
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void fetch_revalidatesAndServesNotModifiedFromDisk() throws Exception {
+        var uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/movies.json");
+        var directory = Files.createTempDirectory("http-cache");
+        var client = HttpClient.newHttpClient();
+
+        var first = new DiskHttpCache(directory).fetch(client, uri);
+        var afterRestart = new DiskHttpCache(directory).fetch(client, uri);
+
+        assertFalse(first.fromCache());
+        assertTrue(afterRestart.fromCache());
+        assertEquals(1, fullResponses.get());
+        assertEquals(new String(BODY, StandardCharsets.UTF_8),
+                new String(afterRestart.bodyAsStream().readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void fetch_downloadsAgainWhenTheBodyIsEvictedDuringRevalidation() throws Exception {
+        var directory = Files.createTempDirectory("http-cache");
+        server.createContext("/evicted.json", exchange -> {
+            if (exchange.getRequestHeaders().containsKey("If-None-Match")) {
+                // the body disappears after the client read its ETag
+                try (var files = Files.list(directory)) {
+                    for (var file : files.filter(file -> file.toString().endsWith(".body")).toList()) {
+                        Files.delete(file);
+                    }
+                }
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                fullResponses.incrementAndGet();
+                exchange.getResponseHeaders().set("ETag", "\"v1\"");
+                exchange.sendResponseHeaders(200, BODY.length);
+                exchange.getResponseBody().write(BODY);
+            }
+            exchange.close();
+        });
+        var uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/evicted.json");
+        var client = HttpClient.newHttpClient();
+        var diskHttpCache = new DiskHttpCache(directory);
+
+        diskHttpCache.fetch(client, uri);
+        var refetched = diskHttpCache.fetch(client, uri);
+
+        assertFalse(refetched.fromCache());
+        assertEquals(2, fullResponses.get());
+        assertEquals(new String(BODY, StandardCharsets.UTF_8),
+                new String(refetched.bodyAsStream().readAllBytes(), StandardCharsets.UTF_8));
+        try (var files = Files.list(directory)) {
+            assertTrue(files.noneMatch(file -> file.toString().endsWith(".download")));
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.modernjava.http.cache;
+
+import com.modernjava.http.Movie;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class MovieCacheTest {
+
+    @Test
+    void concurrentMissesShareOneLoad() {
+        var loads = new AtomicInteger();
+        var pendingLoad = new CompletableFuture<Movie>();
+        var movieCache = new MovieCache(movieId -> {
+            loads.incrementAndGet();
+            return pendingLoad;
+        }, 10, Duration.ofMinutes(1));
+
+        var first = movieCache.getAsync(1);
+        var second = movieCache.getAsync(1);
+        pendingLoad.complete(movie(1));
+
+        assertSame(first.join(), second.join());
+        assertEquals(movie(1), movieCache.get(1));
+        assertEquals(1, loads.get());
+
+        var stats = movieCache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(2, stats.misses());
+        assertEquals(1, stats.loads());
+    }
+
+    @Test
+    void racingMissesNeverLoadTwice() throws InterruptedException {
+        var loads = new AtomicInteger();
+        var movieCache = new MovieCache(movieId -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(movie(movieId));
+        }, 10_000, Duration.ofMinutes(1));
+
+        var threads = new ArrayList<Thread>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (long movieId = 0; movieId < 5_000; movieId++) {
+                    movieCache.get(movieId);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(5_000, loads.get());
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() {
+        var loads = new AtomicInteger();
+        var movieCache = new MovieCache(movieId -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(movie(movieId));
+        }, 2, Duration.ofMinutes(1));
+
+        movieCache.get(1);
+        movieCache.get(2);
+        movieCache.get(1);
+        movieCache.get(3);
+        movieCache.get(1);
+        movieCache.get(2);
+
+        assertEquals(4, loads.get());
+        assertEquals(2, movieCache.stats().evictions());
+    }
+
+    @Test
+    void expiredEntryIsLoadedAgain() throws InterruptedException {
+        var loads = new AtomicInteger();
+        var movieCache = new MovieCache(movieId -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(movie(movieId));
+        }, 10, Duration.ofMillis(5));
+
+        movieCache.get(1);
+        Thread.sleep(10);
+        movieCache.get(1);
+
+        assertEquals(2, loads.get());
+    }
+
+    private static Movie movie(long movieId) {
+        return new Movie((double) movieId, "Movie " + movieId, "Christian Bale", 2005, LocalDate.of(2005, 6, 15));
+    }
+}
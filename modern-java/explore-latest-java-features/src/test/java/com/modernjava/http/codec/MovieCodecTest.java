@@ -0,0 +1,80 @@
+package com.modernjava.http.codec;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.modernjava.http.Movie;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MovieCodecTest {
+
+    ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+
+    @Test
+    void decodeArray_matchesJackson() throws Exception {
+        var json = getClass().getResourceAsStream("/movies.json").readAllBytes();
+
+        List<Movie> expected = objectMapper.readValue(json, new TypeReference<>() { });
+
+        assertEquals(expected, MovieCodec.decodeArray(json));
+    }
+
+    @Test
+    void decode_escapesNullsAndUnknownFields() {
+        var json = """
+                {"rating": {"imdb": [9.0, 8.5]}, "movie_id": 12, "name": "Am\\u00e9lie \\"Le Fabuleux\\"",
+                 "cast": null, "year": 2001, "release_date": "2001-04-25", "sequel": false}
+                """.getBytes(StandardCharsets.UTF_8);
+
+        var movie = MovieCodec.decode(json);
+
+        assertEquals(new Movie(12.0, "Am\u00e9lie \"Le Fabuleux\"", null, 2001, LocalDate.of(2001, 4, 25)), movie);
+    }
+
+    @Test
+    void decode_escapedSurrogatePairMatchesJackson() throws Exception {
+        var json = """
+                {"movie_id": 7, "name": "\\ud83c\\udfac \\u00e9", "cast": "\\ud83c\\udfac\\n", "year": 2020, "release_date": null}
+                """.getBytes(StandardCharsets.UTF_8);
+
+        var movie = MovieCodec.decode(json);
+
+        assertEquals(objectMapper.readValue(json, Movie.class), movie);
+        assertEquals("\ud83c\udfac \u00e9", movie.name());
+        var out = new ByteArrayOutputStream();
+        MovieCodec.encodeArray(List.of(movie), out);
+        assertEquals(objectMapper.writeValueAsString(List.of(movie)), out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void decode_unpairedSurrogateBecomesReplacementCharacter() {
+        var json = """
+                {"movie_id": 7, "name": "a\\ud83c b\\udfac c\\ud83c\\n\\ud83c\\ud83c\\udfac"}
+                """.getBytes(StandardCharsets.UTF_8);
+
+        assertEquals("a\ufffd b\ufffd c\ufffd\n\ufffd\ud83c\udfac", MovieCodec.decode(json).name());
+    }
+
+    @Test
+    void encode_matchesJackson() throws Exception {
+        var movies = List.of(
+                new Movie(1.0, "Batman Begins", "Christian Bale, Katie Holmes", 2005, LocalDate.of(2005, 6, 15)),
+                new Movie(2.5, "L\u00e9on \"The Professional\"\n", null, null, null));
+        var out = new ByteArrayOutputStream();
+
+        MovieCodec.encodeArray(movies, out);
+
+        assertEquals(objectMapper.writeValueAsString(movies), out.toString(StandardCharsets.UTF_8));
+        assertEquals(movies, MovieCodec.decodeArray(out.toByteArray()));
+    }
+}
@@ -0,0 +1,29 @@
+package com.modernjava.http.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecentConnectionsTest {
+
+    @Test
+    void reused() {
+        var recentConnections = new RecentConnections();
+
+        assertFalse(recentConnections.reused("connection-1"));
+        assertTrue(recentConnections.reused("connection-1"));
+        assertFalse(recentConnections.reused("connection-2"));
+        assertTrue(recentConnections.reused("connection-1"));
+    }
+
+    @Test
+    void reused_forgetsEvictedConnections() {
+        var recentConnections = new RecentConnections(1);
+
+        assertFalse(recentConnections.reused("connection-1"));
+        assertFalse(recentConnections.reused("connection-2"));
+        assertFalse(recentConnections.reused("connection-1"));
+        assertTrue(recentConnections.reused("connection-1"));
+    }
+}
@@ -0,0 +1,93 @@
+package com.modernjava.http.search;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.modernjava.http.Movie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MovieSearchIndexTest {
+
+    MovieSearchIndex movieSearchIndex;
+
+    @BeforeEach
+    void buildIndex() throws IOException {
+        List<Movie> movies = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .readValue(getClass().getResourceAsStream("/movies.json"), new TypeReference<>() { });
+        movieSearchIndex = MovieSearchIndex.build(movies);
+    }
+
+    @Test
+    void moviesWithCast() {
+        assertArrayEquals(new long[]{2, 3}, movieSearchIndex.moviesWithCast("Bale", "Caine"));
+        assertArrayEquals(new long[]{1, 2, 3}, movieSearchIndex.moviesWithCast("bale"));
+        assertArrayEquals(new long[0], movieSearchIndex.moviesWithCast("Bale", "Unknown"));
+    }
+
+    @Test
+    void moviesWithCast_fullName() {
+        assertArrayEquals(new long[]{1, 2, 3}, movieSearchIndex.moviesWithCast("Christian Bale"));
+        assertArrayEquals(new long[]{1, 2, 3}, movieSearchIndex.moviesWithCast(" christian   BALE "));
+        assertArrayEquals(new long[0], movieSearchIndex.moviesWithCast("Christian Caine"));
+    }
+
+    @Test
+    void moviesWithTitle() {
+        assertArrayEquals(new long[]{2, 3}, movieSearchIndex.moviesWithTitle("dark", "KNIGHT"));
+    }
+
+    @Test
+    void incrementalUpdates() {
+        movieSearchIndex.upsert(new Movie(11.0, "The Prestige", "Christian Bale, Hugh Jackman , Michael Caine", 2006, LocalDate.of(2006, 10, 20)));
+        assertArrayEquals(new long[]{2, 3, 11}, movieSearchIndex.moviesWithCast("Bale", "Caine"));
+        assertArrayEquals(new long[]{11}, movieSearchIndex.moviesWithCast("Hugh Jackman"));
+
+        movieSearchIndex.upsert(new Movie(2.0, "Dark Knight", "Heath Ledger", 2008, LocalDate.of(2008, 7, 18)));
+        movieSearchIndex.remove(3);
+        assertArrayEquals(new long[]{11}, movieSearchIndex.moviesWithCast("Bale", "Caine"));
+    }
+
+    @Test
+    void remove_evictsUnusedTokens() {
+        var tokenCount = movieSearchIndex.tokenCount();
+
+        movieSearchIndex.upsert(new Movie(11.0, "Memento", "Guy Pearce", 2000, LocalDate.of(2000, 9, 5)));
+        assertEquals(tokenCount + 4, movieSearchIndex.tokenCount());
+
+        movieSearchIndex.upsert(new Movie(11.0, "Insomnia", "Guy Pearce", 2002, LocalDate.of(2002, 5, 24)));
+        assertEquals(tokenCount + 4, movieSearchIndex.tokenCount());
+        assertArrayEquals(new long[0], movieSearchIndex.moviesWithTitle("memento"));
+
+        movieSearchIndex.remove(11);
+        assertEquals(tokenCount, movieSearchIndex.tokenCount());
+    }
+
+    @Test
+    void upsert_isAtomicForQueries() throws InterruptedException {
+        var titles = new String[]{"Following Memento", "Tenet Insomnia"};
+        movieSearchIndex.upsert(new Movie(11.0, titles[0], "John Washington", 1998, LocalDate.of(1998, 9, 12)));
+        var writer = Thread.ofVirtual().start(() -> {
+            for (int i = 1; i <= 2_000; i++) {
+                movieSearchIndex.upsert(new Movie(11.0, titles[i % 2], "John Washington", 1998, LocalDate.of(1998, 9, 12)));
+            }
+        });
+
+        while (writer.isAlive()) {
+            // every term of a query is looked up in the same snapshot, so an old and a new token never match together
+            assertArrayEquals(new long[0], movieSearchIndex.moviesWithTitle("following", "insomnia"));
+            assertArrayEquals(new long[0], movieSearchIndex.moviesWithTitle("tenet", "memento"));
+        }
+        writer.join();
+        assertArrayEquals(new long[]{11}, movieSearchIndex.moviesWithTitle("following", "memento"));
+        assertArrayEquals(new long[0], movieSearchIndex.moviesWithTitle("tenet"));
+    }
+}
@@ -0,0 +1,38 @@
+package com.modernjava.http.search;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.modernjava.http.Movie;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TitleTrigramIndexTest {
+
+    @Test
+    void search() throws IOException {
+        List<Movie> movies = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .readValue(getClass().getResourceAsStream("/movies.json"), new TypeReference<>() { });
+        var titleTrigramIndex = TitleTrigramIndex.build(movies);
+
+        var matches = titleTrigramIndex.search("dark night", 2);
+        assertEquals(List.of("Dark Knight", "The Dark Knight Rises"), matches.stream().map(match -> match.movie().name()).toList());
+        assertEquals(1, matches.get(0).editDistance());
+
+        assertEquals("Batman Begins", titleTrigramIndex.search("batmn begins", 1).get(0).movie().name());
+        assertTrue(titleTrigramIndex.search("zzz", 5).isEmpty());
+    }
+
+    @Test
+    void editDistance() {
+        assertEquals(0, TitleTrigramIndex.editDistance("knight", "knight"));
+        assertEquals(1, TitleTrigramIndex.editDistance("night", "knight"));
+        assertEquals(3, TitleTrigramIndex.editDistance("kitten", "sitting"));
+    }
+}
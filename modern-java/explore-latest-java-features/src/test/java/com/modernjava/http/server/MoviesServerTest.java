@@ -0,0 +1,50 @@
+package com.modernjava.http.server;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MoviesServerTest {
+
+    @Test
+    void contentCoding() {
+        assertEquals("identity", MoviesServer.contentCoding(null));
+        assertEquals("gzip", MoviesServer.contentCoding("gzip, deflate"));
+        assertEquals("deflate", MoviesServer.contentCoding("gzip;q=0.1, deflate"));
+        assertEquals("identity", MoviesServer.contentCoding("gzip;q=0.1"));
+        assertEquals("deflate", MoviesServer.contentCoding("identity;q=0.5, gzip ; level=1 ; Q=0.2, deflate;q=0.8"));
+        assertEquals("gzip", MoviesServer.contentCoding("*"));
+        assertEquals("deflate", MoviesServer.contentCoding("gzip;q=0, *;q=0.5"));
+        assertEquals("identity", MoviesServer.contentCoding("br, gzip;q=abc"));
+        assertNull(MoviesServer.contentCoding("identity;q=0"));
+        assertNull(MoviesServer.contentCoding("*;q=0"));
+    }
+
+    @Test
+    void everyContentCodingHasItsOwnEtag() throws Exception {
+        var resourceDirectory = Path.of(MoviesServerTest.class.getResource("/movies.json").toURI()).getParent();
+        try (var moviesServer = new MoviesServer(0, resourceDirectory);
+             var client = HttpClient.newHttpClient()) {
+            moviesServer.start();
+            var etags = new HashSet<String>();
+            for (String acceptEncoding : new String[]{"gzip", "deflate", "identity"}) {
+                var request = HttpRequest.newBuilder(URI.create(moviesServer.baseUrl() + "movies.json"))
+                        .header("Accept-Encoding", acceptEncoding);
+                var etag = client.send(request.build(), HttpResponse.BodyHandlers.discarding()).headers().firstValue("ETag").orElseThrow();
+                etags.add(etag);
+
+                var revalidation = client.send(request.header("If-None-Match", etag).build(), HttpResponse.BodyHandlers.discarding());
+                assertEquals(304, revalidation.statusCode());
+            }
+            assertEquals(3, etags.size());
+        }
+    }
+}
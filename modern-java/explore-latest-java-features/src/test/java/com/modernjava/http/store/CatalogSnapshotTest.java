@@ -0,0 +1,90 @@
+package com.modernjava.http.store;
+
+import com.modernjava.http.Movie;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CatalogSnapshotTest {
+
+    @Test
+    void writeAndOpen() throws IOException {
+        var movieStore = MovieStore.load(Stream.concat(
+                LongStream.rangeClosed(1, 1000).map(id -> id * 7).mapToObj(CatalogSnapshotTest::movie),
+                Stream.of(new Movie(5.0, null, "Ren\u00e9e Zellweger", null, null))));
+        var file = Files.createTempDirectory("catalog").resolve("movies.snapshot");
+
+        CatalogSnapshot.write(movieStore, file);
+        var catalogSnapshot = CatalogSnapshot.open(file);
+
+        assertEquals(1001, catalogSnapshot.size());
+        assertEquals(movie(700), catalogSnapshot.get(700));
+        assertEquals(new Movie(5.0, null, "Ren\u00e9e Zellweger", null, null), catalogSnapshot.get(5));
+        assertNull(catalogSnapshot.get(6));
+        var movieIds = new ArrayList<Double>();
+        catalogSnapshot.forEach(movie -> movieIds.add(movie.movie_id()));
+        assertEquals(List.of(5.0, 7.0, 14.0), movieIds.subList(0, 3));
+    }
+
+    @Test
+    void refreshingCatalog() throws IOException {
+        var file = Files.createTempDirectory("catalog").resolve("movies.snapshot");
+        CatalogSnapshot.write(MovieStore.load(Stream.of(movie(1))), file);
+
+        var refreshingCatalog = new RefreshingCatalog(() -> Stream.of(movie(1), movie(2)), file);
+        assertEquals(1, refreshingCatalog.size());
+
+        refreshingCatalog.refresh().join();
+        assertEquals(movie(2), refreshingCatalog.get(2));
+        assertEquals(2, CatalogSnapshot.open(file).size());
+    }
+
+    @Test
+    void refreshingCatalog_coalescesConcurrentRefreshes() throws Exception {
+        var file = Files.createTempDirectory("catalog").resolve("movies.snapshot");
+        var downloads = new AtomicInteger();
+        var downloadStarted = new CountDownLatch(1);
+        var releaseDownload = new CountDownLatch(1);
+        var refreshingCatalog = new RefreshingCatalog(() -> {
+            downloads.incrementAndGet();
+            downloadStarted.countDown();
+            try {
+                releaseDownload.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return Stream.of(movie(1), movie(2));
+        }, file);
+
+        var first = refreshingCatalog.refresh();
+        downloadStarted.await();
+        var second = refreshingCatalog.refresh();
+        releaseDownload.countDown();
+
+        assertEquals(2, first.join().size());
+        assertEquals(2, second.join().size());
+        assertEquals(1, downloads.get());
+        try (var files = Files.list(file.getParent())) {
+            assertEquals(List.of(file), files.toList());
+        }
+
+        refreshingCatalog.refresh().join();
+        assertEquals(2, downloads.get());
+    }
+
+    private static Movie movie(long movieId) {
+        return new Movie((double) movieId, "Movie " + movieId, "Christian Bale, Michael Caine", 2000, LocalDate.of(2000, 1, movieId % 2 == 0 ? 2 : 1));
+    }
+}
@@ -0,0 +1,106 @@
+package com.modernjava.http.store;
+
+import com.modernjava.http.Movie;
+import com.modernjava.http.MoviesClient;
+import com.modernjava.http.server.MoviesServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeltaSyncTest {
+
+    MoviesServer moviesServer;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        var resourceDirectory = Path.of(DeltaSyncTest.class.getResource("/movies.json").toURI()).getParent();
+        moviesServer = new MoviesServer(0, resourceDirectory);
+        moviesServer.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        moviesServer.close();
+    }
+
+    @Test
+    void sync() throws Exception {
+        var movieStore = new MovieStore();
+        var deltaSync = new DeltaSync(new MoviesClient(moviesServer.baseUrl()), movieStore);
+
+        assertTrue(deltaSync.sync().resync());
+        assertEquals(10, movieStore.size());
+        assertEquals(1, deltaSync.version());
+
+        moviesServer.upsertMovie(new Movie(11.0, "The Prestige", "Christian Bale, Hugh Jackman", 2006, LocalDate.of(2006, 10, 20)));
+        moviesServer.upsertMovie(new Movie(2.0, "The Dark Knight", "Christian Bale, Heath Ledger", 2008, LocalDate.of(2008, 7, 18)));
+        moviesServer.deleteMovie(3);
+        moviesServer.upsertMovie(new Movie(12.0, "Insomnia", "Al Pacino", 2002, LocalDate.of(2002, 5, 24)));
+        moviesServer.deleteMovie(12);
+
+        var delta = deltaSync.sync();
+        assertFalse(delta.resync());
+        assertEquals(2, delta.upserts().size());
+        assertEquals(6, deltaSync.version());
+        assertEquals(10, movieStore.size());
+        assertEquals("The Prestige", movieStore.get(11).name());
+        assertEquals("The Dark Knight", movieStore.get(2).name());
+        assertNull(movieStore.get(3));
+        assertNull(movieStore.get(12));
+
+        assertEquals(0, deltaSync.sync().upserts().size());
+    }
+
+    @Test
+    void sync_resyncsAfterServerRestart() throws Exception {
+        var resourceDirectory = Path.of(DeltaSyncTest.class.getResource("/movies.json").toURI()).getParent();
+        var moviesClient = new AtomicReference<>(new MoviesClient(moviesServer.baseUrl()));
+        var movieStore = new MovieStore();
+        var deltaSync = new DeltaSync((epoch, since) -> moviesClient.get().retrieveDelta(epoch, since), movieStore, null, 0);
+        moviesServer.upsertMovie(new Movie(11.0, "The Prestige", "Christian Bale, Hugh Jackman", 2006, LocalDate.of(2006, 10, 20)));
+        moviesServer.upsertMovie(new Movie(12.0, "Insomnia", "Al Pacino", 2002, LocalDate.of(2002, 5, 24)));
+        deltaSync.sync();
+        assertEquals(3, deltaSync.version());
+
+        try (var restartedServer = new MoviesServer(0, resourceDirectory)) {
+            restartedServer.start();
+            restartedServer.deleteMovie(1);
+            moviesClient.set(new MoviesClient(restartedServer.baseUrl()));
+
+            var delta = deltaSync.sync();
+
+            assertTrue(delta.resync());
+            assertEquals(2, deltaSync.version());
+            assertEquals(9, movieStore.size());
+            assertNull(movieStore.get(1));
+            assertNull(movieStore.get(11));
+        }
+    }
+
+    @Test
+    void sync_resyncsWhenTheChangeLogNoLongerReachesBack() throws Exception {
+        var movieStore = new MovieStore();
+        var deltaSync = new DeltaSync(new MoviesClient(moviesServer.baseUrl()), movieStore);
+        deltaSync.sync();
+        moviesServer.deleteMovie(1);
+        for (long movieId = 100; movieId < 100 + MoviesServer.MAX_CHANGES; movieId++) {
+            moviesServer.upsertMovie(new Movie((double) movieId, "Movie " + movieId, null, 2000, null));
+        }
+
+        var delta = deltaSync.sync();
+
+        assertTrue(delta.resync());
+        assertEquals(9 + MoviesServer.MAX_CHANGES, movieStore.size());
+        assertNull(movieStore.get(1));
+        assertFalse(deltaSync.sync().resync());
+    }
+}
@@ -0,0 +1,41 @@
+package com.modernjava.http.store;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.modernjava.http.Movie;
+import com.modernjava.http.MovieStreamParser;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MovieDateIndexTest {
+
+    MovieStore movieStore = MovieStore.load(MovieStreamParser.parse(
+            MovieDateIndexTest.class.getResourceAsStream("/movies.json"), new ObjectMapper().registerModule(new JavaTimeModule())));
+
+    MovieDateIndex movieDateIndex = MovieDateIndex.build(movieStore);
+
+    @Test
+    void releasedBetween() {
+        var newestFirst = movieDateIndex.releasedBetween(LocalDate.of(2008, 1, 1), LocalDate.of(2012, 12, 31), true, 10);
+        assertEquals(List.of(3.0, 4.0, 8.0, 2.0), movieIds(newestFirst));
+
+        var oldestFirst = movieDateIndex.releasedBetween(LocalDate.of(2008, 7, 18), LocalDate.of(2012, 7, 19), false, 2);
+        assertEquals(List.of(2.0, 8.0), movieIds(oldestFirst));
+
+        assertEquals(List.of(), movieDateIndex.releasedBetween(LocalDate.of(2020, 1, 1), LocalDate.of(2030, 1, 1), true, 10));
+    }
+
+    @Test
+    void releasedInYears() {
+        assertEquals(List.of(4.0, 3.0, 8.0, 2.0), movieIds(movieDateIndex.releasedInYears(2008, 2012, true, 10)));
+        assertEquals(List.of(3.0, 4.0), movieIds(movieDateIndex.releasedInYears(2012, 2012, false, 10)));
+    }
+
+    private static List<Double> movieIds(List<Movie> movies) {
+        return movies.stream().map(Movie::movie_id).toList();
+    }
+}
@@ -0,0 +1,53 @@
+package com.modernjava.http.store;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.modernjava.http.Movie;
+import com.modernjava.http.MovieStreamParser;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MovieStoreTest {
+
+    @Test
+    void load() {
+        var objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        var movieStore = MovieStore.load(MovieStreamParser.parse(getClass().getResourceAsStream("/movies.json"), objectMapper));
+
+        assertEquals(10, movieStore.size());
+        assertEquals("Dark Knight", movieStore.get(2).name());
+        assertNull(movieStore.get(42));
+    }
+
+    @Test
+    void apply() {
+        var movieStore = MovieStore.load(LongStream.rangeClosed(1, 100_000).mapToObj(MovieStoreTest::movie));
+        var before = movieStore.snapshot();
+
+        var deletes = LongStream.rangeClosed(1, 100_000).filter(id -> id % 3 == 0).toArray();
+        movieStore.apply(List.of(movie(200_000), new Movie(7.0, "Updated", "", 2025, LocalDate.of(2025, 1, 1))), deletes);
+
+        assertEquals(100_000, before.size());
+        assertEquals("Movie 3", before.get(3).name());
+        assertEquals(100_000 - deletes.length + 1, movieStore.size());
+        for (long movieId = 1; movieId <= 100_000; movieId++) {
+            if (movieId % 3 == 0) {
+                assertNull(movieStore.get(movieId));
+            } else if (movieId != 7) {
+                assertEquals("Movie " + movieId, movieStore.get(movieId).name());
+            }
+        }
+        assertEquals("Updated", movieStore.get(7).name());
+        assertEquals("Movie 200000", movieStore.get(200_000).name());
+    }
+
+    private static Movie movie(long movieId) {
+        return new Movie((double) movieId, "Movie " + movieId, "", 2000, LocalDate.of(2000, 1, 1));
+    }
+}
@@ -0,0 +1,6 @@
+package com.modulefour.dtos;
+
+import com.moduleone.spi.ModuleData;
+
+public record ModuleFourDTO(String name) implements ModuleData {
+}
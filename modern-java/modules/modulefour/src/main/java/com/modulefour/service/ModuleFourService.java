@@ -1,8 +1,17 @@
 package com.modulefour.service;
 
-public class ModuleFourService {
+import com.modulefour.dtos.ModuleFourDTO;
+import com.moduleone.spi.DataProvider;
+
+@DataProvider.Name("modulefour")
+public class ModuleFourService implements DataProvider {
 
     public String retrieve(){
         return "UnNamed";
     }
+
+    @Override
+    public ModuleFourDTO retrieveData() {
+        return new ModuleFourDTO(retrieve());
+    }
 }
@@ -1,4 +1,6 @@
 package com.moduleone.dtos;
 
-public record Module1DTO(String name) {
+import com.moduleone.spi.ModuleData;
+
+public record Module1DTO(String name) implements ModuleData {
 }
@@ -1,10 +1,287 @@
 package com.moduleone.http;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.nio.ByteBuffer;
 import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
 
-public class HttpClient {
+/**
+ * A tuned {@link java.net.http.HttpClient} meant to be shared: use {@link #shared()} rather than creating one
+ * per caller, so all modules reuse the same connections and threads.
+ * Requests prefer HTTP/2, run on virtual threads and are limited to {@code maxConcurrencyPerHost} in flight
+ * per host; callers over the limit wait for a permit.
+ * A client created with {@code new} owns its connections and threads and must be closed; closing the shared one
+ * has no effect.
+ */
+public class HttpClient implements AutoCloseable {
+
+    public static final int DEFAULT_MAX_CONCURRENCY_PER_HOST = 64;
+
+    private static final HttpClient SHARED = new HttpClient();
+    private static final int SINK_BUFFER_SIZE = 16 * 1024;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
 
     private final java.net.http.HttpClient client = java.net.http.HttpClient.newBuilder()
+            .version(java.net.http.HttpClient.Version.HTTP_2)
             .connectTimeout(Duration.ofSeconds(2))
+            .executor(executor)
             .build();
+
+    private final int maxConcurrencyPerHost;
+    private final Map<String, HostPermits> hostPermits = new ConcurrentHashMap<>();
+    private final HttpClientStats stats = new HttpClientStats();
+
+    public HttpClient() {
+        this(DEFAULT_MAX_CONCURRENCY_PER_HOST);
+    }
+
+    /**
+     * @param maxConcurrencyPerHost maximum number of requests in flight to the same host
+     */
+    public HttpClient(int maxConcurrencyPerHost) {
+        this.maxConcurrencyPerHost = maxConcurrencyPerHost;
+    }
+
+    /**
+     * The client every module should use unless it needs a different per-host limit.
+     */
+    public static HttpClient shared() {
+        return SHARED;
+    }
+
+    /**
+     * Permits of one host, removed from {@link #hostPermits} once no request holds or waits for one,
+     * so hosts called once are not remembered forever. {@code users} only changes inside {@code compute}.
+     */
+    private static final class HostPermits {
+        final Semaphore semaphore;
+        int users;
+
+        HostPermits(int permits) {
+            this.semaphore = new Semaphore(permits);
+        }
+    }
+
+    /**
+     * Sends the request and records its latency, response size and connection reuse in {@link #stats()},
+     * in total and for its endpoint.
+     */
+    public HttpResponse<byte[]> send(HttpRequest request) throws IOException, InterruptedException {
+        return send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    /**
+     * Sends the request once a permit for its host is available, blocking until the body is handled.
+     */
+    public <T> HttpResponse<T> send(HttpRequest request, BodyHandler<T> bodyHandler)
+            throws IOException, InterruptedException {
+        var host = hostOf(request.uri());
+        var endpoint = host + request.uri().getRawPath();
+        var permits = hostPermits.compute(host, (key, current) -> {
+            var entry = current == null ? new HostPermits(maxConcurrencyPerHost) : current;
+            entry.users++;
+            return entry;
+        });
+        try {
+            permits.semaphore.acquire();
+        } catch (InterruptedException e) {
+            leave(host);
+            throw e;
+        }
+        var start = System.nanoTime();
+        try {
+            var bytes = new LongAdder();
+            var response = client.send(request, responseInfo -> new CountingSubscriber<>(bodyHandler.apply(responseInfo), bytes));
+            stats.recordResponse(endpoint, response, System.nanoTime() - start, bytes.sum());
+            return response;
+        } catch (IOException | InterruptedException e) {
+            stats.recordFailure(endpoint, System.nanoTime() - start);
+            throw e;
+        } finally {
+            permits.semaphore.release();
+            leave(host);
+        }
+    }
+
+    private void leave(String host) {
+        hostPermits.computeIfPresent(host, (key, permits) -> --permits.users == 0 ? null : permits);
+    }
+
+    /**
+     * Sends the request on a virtual thread, see {@link #send(HttpRequest, BodyHandler)}.
+     * Cancelling the returned future interrupts the exchange.
+     */
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, BodyHandler<T> bodyHandler) {
+        var result = new CompletableFuture<HttpResponse<T>>();
+        var task = executor.submit(() -> {
+            try {
+                result.complete(send(request, bodyHandler));
+            } catch (IOException | InterruptedException | RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        result.whenComplete((response, e) -> {
+            if (result.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Streams the response body into {@code sink} as it arrives, without buffering it whole.
+     *
+     * @return the response, whose body is the number of bytes written to the sink
+     */
+    public CompletableFuture<HttpResponse<Long>> sendAsync(HttpRequest request, OutputStream sink) {
+        return sendAsync(request, toSink(sink));
+    }
+
+    /**
+     * A body handler writing the body into {@code sink}, whatever the status code; the sink is flushed but not closed.
+     */
+    public static BodyHandler<Long> toSink(OutputStream sink) {
+        return responseInfo -> new SinkSubscriber(sink);
+    }
+
+    public HttpClientStats stats() {
+        return stats;
+    }
+
+    /**
+     * Closes the connections and stops the threads of this client, after the requests in flight complete.
+     * Does nothing for the {@link #shared()} client, which lives as long as the JVM, so
+     * {@code try (var client = HttpClient.shared())} is harmless.
+     */
+    @Override
+    public void close() {
+        if (this == SHARED) {
+            return;
+        }
+        client.close();
+        executor.close();
+    }
+
+    /**
+     * @return {@code host:port}, with the default port of the scheme when the URI has none,
+     * so {@code http://host/} and {@code http://host:80/} share their permits
+     */
+    static String hostOf(URI uri) {
+        var port = uri.getPort();
+        if (port == -1) {
+            port = "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+        }
+        return uri.getHost().toLowerCase(Locale.ROOT) + ":" + port;
+    }
+
+    private static final class CountingSubscriber<T> implements BodySubscriber<T> {
+        private final BodySubscriber<T> delegate;
+        private final LongAdder bytes;
+
+        CountingSubscriber(BodySubscriber<T> delegate, LongAdder bytes) {
+            this.delegate = delegate;
+            this.bytes = bytes;
+        }
+
+        @Override
+        public CompletionStage<T> getBody() {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            delegate.onSubscribe(subscription);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> buffers) {
+            for (ByteBuffer buffer : buffers) {
+                bytes.add(buffer.remaining());
+            }
+            delegate.onNext(buffers);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            delegate.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            delegate.onComplete();
+        }
+    }
+
+    private static final class SinkSubscriber implements BodySubscriber<Long> {
+        private final OutputStream sink;
+        private final CompletableFuture<Long> result = new CompletableFuture<>();
+        private final byte[] chunk = new byte[SINK_BUFFER_SIZE];
+        private Flow.Subscription subscription;
+        private long written;
+
+        SinkSubscriber(OutputStream sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public CompletionStage<Long> getBody() {
+            return result;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> buffers) {
+            try {
+                for (ByteBuffer buffer : buffers) {
+                    while (buffer.hasRemaining()) {
+                        var length = Math.min(chunk.length, buffer.remaining());
+                        buffer.get(chunk, 0, length);
+                        sink.write(chunk, 0, length);
+                        written += length;
+                    }
+                }
+                subscription.request(1);
+            } catch (IOException e) {
+                subscription.cancel();
+                result.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            result.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            try {
+                sink.flush();
+                result.complete(written);
+            } catch (IOException e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
 }
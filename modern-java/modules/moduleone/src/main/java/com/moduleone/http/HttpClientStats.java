@@ -0,0 +1,138 @@
+package com.moduleone.http;
+
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histograms of the requests sent through {@link HttpClient}, in total and per endpoint.
+ * Recording only touches {@link LongAdder}s and atomic counters, so it takes no lock.
+ * Every request also emits a {@code com.moduleone.HttpExchange} JFR event when JFR is recording.
+ *
+ * <p>Endpoints are the host and path of the request; past {@link #MAX_ENDPOINTS} distinct ones, requests
+ * are counted under {@link #OTHER_ENDPOINTS}, so paths carrying ids cannot grow the map without bound.</p>
+ */
+public class HttpClientStats {
+
+    public static final int MAX_ENDPOINTS = 256;
+    public static final String OTHER_ENDPOINTS = "other";
+
+    private final Counters total = new Counters();
+    private final Map<String, Counters> endpoints = new ConcurrentHashMap<>();
+    private final RecentConnections recentConnections = new RecentConnections();
+
+    /**
+     * @param connectionReuseRatio fraction of the responses received on a recently used connection
+     */
+    public record Snapshot(long requests,
+                           long failures,
+                           long responseBytes,
+                           Duration averageLatency,
+                           Duration maxLatency,
+                           Duration p50,
+                           Duration p99,
+                           double connectionReuseRatio) {
+    }
+
+    private static final class Counters {
+        final LongAdder requests = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        final LongAdder responseBytes = new LongAdder();
+        final LongAdder totalLatencyNanos = new LongAdder();
+        final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0);
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder labelledResponses = new LongAdder();
+        final LongAdder reusedConnections = new LongAdder();
+
+        void record(long latencyNanos, boolean failed) {
+            requests.increment();
+            if (failed) {
+                failures.increment();
+            }
+            totalLatencyNanos.add(latencyNanos);
+            maxLatencyNanos.accumulate(latencyNanos);
+            latency.record(latencyNanos);
+        }
+
+        Snapshot snapshot() {
+            var requestCount = requests.sum();
+            var labelled = labelledResponses.sum();
+            return new Snapshot(requestCount,
+                    failures.sum(),
+                    responseBytes.sum(),
+                    Duration.ofNanos(requestCount == 0 ? 0 : totalLatencyNanos.sum() / requestCount),
+                    Duration.ofNanos(maxLatencyNanos.get()),
+                    Duration.ofNanos(latency.percentile(0.50)),
+                    Duration.ofNanos(latency.percentile(0.99)),
+                    labelled == 0 ? 0 : (double) reusedConnections.sum() / labelled);
+        }
+    }
+
+    void recordResponse(String endpoint, HttpResponse<?> response, long latencyNanos, long bytes) {
+        var failed = response.statusCode() >= 400;
+        var connection = response.connectionLabel().orElse(null);
+        var reused = connection != null && recentConnections.reused(connection);
+        for (Counters counters : new Counters[]{total, endpoint(endpoint)}) {
+            counters.record(latencyNanos, failed);
+            counters.responseBytes.add(bytes);
+            if (connection != null) {
+                counters.labelledResponses.increment();
+                if (reused) {
+                    counters.reusedConnections.increment();
+                }
+            }
+        }
+
+        var event = new HttpExchangeEvent();
+        if (event.shouldCommit()) {
+            event.endpoint = endpoint;
+            event.statusCode = response.statusCode();
+            event.latency = latencyNanos;
+            event.responseBytes = bytes;
+            event.connection = connection;
+            event.connectionReused = reused;
+            event.commit();
+        }
+    }
+
+    void recordFailure(String endpoint, long latencyNanos) {
+        total.record(latencyNanos, true);
+        endpoint(endpoint).record(latencyNanos, true);
+
+        var event = new HttpExchangeEvent();
+        if (event.shouldCommit()) {
+            event.endpoint = endpoint;
+            event.latency = latencyNanos;
+            event.commit();
+        }
+    }
+
+    /**
+     * @return the stats of all the requests
+     */
+    public Snapshot snapshot() {
+        return total.snapshot();
+    }
+
+    /**
+     * @return the stats of every endpoint, by endpoint
+     */
+    public Map<String, Snapshot> endpoints() {
+        var snapshot = new TreeMap<String, Snapshot>();
+        endpoints.forEach((endpoint, counters) -> snapshot.put(endpoint, counters.snapshot()));
+        return snapshot;
+    }
+
+    private Counters endpoint(String endpoint) {
+        var counters = endpoints.get(endpoint);
+        if (counters != null) {
+            return counters;
+        }
+        var key = endpoints.size() < MAX_ENDPOINTS ? endpoint : OTHER_ENDPOINTS;
+        return endpoints.computeIfAbsent(key, name -> new Counters());
+    }
+}
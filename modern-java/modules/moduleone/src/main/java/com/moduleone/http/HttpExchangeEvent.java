@@ -0,0 +1,43 @@
+package com.moduleone.http;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event emitted for every request sent through {@link HttpClient}, answered or not.
+ */
+@Name(HttpExchangeEvent.NAME)
+@Label("HTTP Exchange")
+@Category({"Modern Java", "Module One HTTP Client"})
+@Description("A request sent through the shared HTTP client")
+@StackTrace(false)
+final class HttpExchangeEvent extends jdk.jfr.Event {
+
+    static final String NAME = "com.moduleone.HttpExchange";
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Status Code")
+    @Description("0 if no response was received")
+    int statusCode;
+
+    @Label("Latency")
+    @Timespan
+    long latency;
+
+    @Label("Response Bytes")
+    @DataAmount
+    long responseBytes;
+
+    @Label("Connection")
+    String connection;
+
+    @Label("Connection Reused")
+    boolean connectionReused;
+}
@@ -1,9 +1,12 @@
 package com.moduleone.service;
 
 import com.moduleone.dtos.Module1DTO;
+import com.moduleone.spi.DataProvider;
 
-public class Module1Service {
+@DataProvider.Name("moduleone")
+public class Module1Service implements DataProvider {
 
+    @Override
     public Module1DTO retrieveData() {
         return new Module1DTO("Hello! This is from Module1");
     }
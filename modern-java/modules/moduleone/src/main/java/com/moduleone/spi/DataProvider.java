@@ -0,0 +1,42 @@
+package com.moduleone.spi;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A module's data, discovered through {@link java.util.ServiceLoader}.
+ * Implementations need a public no-arg constructor and are registered with a {@code provides} clause,
+ * plus a {@code META-INF/services} entry so they are found on the classpath as well.
+ * Consumers look providers up by {@link #name()} and only see {@link ModuleData}, so they need neither a
+ * {@code requires} on the implementing module nor its classes.
+ */
+public interface DataProvider {
+
+    /**
+     * The name of a provider. It is read from the class without initializing it, so a provider can be
+     * found by name before it is instantiated.
+     */
+    @Documented
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.TYPE)
+    @interface Name {
+        String value();
+    }
+
+    /**
+     * @return the {@link Name} of this provider, its class name if it has none
+     */
+    default String name() {
+        return name(getClass());
+    }
+
+    ModuleData retrieveData();
+
+    static String name(Class<? extends DataProvider> type) {
+        var name = type.getAnnotation(Name.class);
+        return name == null ? type.getName() : name.value();
+    }
+}
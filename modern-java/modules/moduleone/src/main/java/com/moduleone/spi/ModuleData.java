@@ -0,0 +1,9 @@
+package com.moduleone.spi;
+
+/**
+ * The data returned by a {@link DataProvider}.
+ */
+public interface ModuleData {
+
+    String name();
+}
@@ -0,0 +1,11 @@
+module moduleone {
+    requires transitive java.net.http;
+    requires jdk.jfr;
+
+    exports com.moduleone.dtos;
+    exports com.moduleone.http;
+    exports com.moduleone.service;
+    exports com.moduleone.spi;
+
+    provides com.moduleone.spi.DataProvider with com.moduleone.service.Module1Service;
+}
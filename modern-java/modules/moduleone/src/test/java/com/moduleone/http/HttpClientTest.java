@@ -0,0 +1,122 @@
+package com.moduleone.http;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HttpClientTest {
+
+    private static final byte[] BODY = new byte[100_000];
+
+    static {
+        Arrays.fill(BODY, (byte) 'x');
+    }
+
+    HttpServer server;
+    AtomicInteger inFlight = new AtomicInteger();
+    AtomicInteger maxInFlight = new AtomicInteger();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/data", exchange -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inFlight.decrementAndGet();
+            exchange.sendResponseHeaders(200, BODY.length);
+            exchange.getResponseBody().write(BODY);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void sendAsync_streamsIntoSink() {
+        var sink = new ByteArrayOutputStream();
+
+        try (var client = new HttpClient()) {
+            var response = client.sendAsync(request(), sink).join();
+
+            assertEquals(200, response.statusCode());
+            assertEquals(BODY.length, (long) response.body());
+            assertArrayEquals(BODY, sink.toByteArray());
+        }
+    }
+
+    @Test
+    void sendAsync_limitsConcurrencyPerHost() {
+        try (var client = new HttpClient(2)) {
+            var responses = new ArrayList<CompletableFuture<HttpResponse<byte[]>>>();
+            for (int i = 0; i < 8; i++) {
+                responses.add(client.sendAsync(request(), HttpResponse.BodyHandlers.ofByteArray()));
+            }
+            responses.forEach(CompletableFuture::join);
+
+            assertTrue(maxInFlight.get() <= 2, "max in flight : " + maxInFlight.get());
+            var stats = client.stats().snapshot();
+            assertEquals(8, stats.requests());
+            assertEquals(8L * BODY.length, stats.responseBytes());
+            assertTrue(stats.p99().compareTo(stats.p50()) >= 0);
+            var endpoint = client.stats().endpoints().get("127.0.0.1:" + server.getAddress().getPort() + "/data");
+            assertEquals(8, endpoint.requests());
+        }
+    }
+
+    @Test
+    void close() {
+        var client = new HttpClient();
+        client.close();
+
+        assertThrows(RejectedExecutionException.class, () -> client.sendAsync(request(), HttpResponse.BodyHandlers.discarding()));
+    }
+
+    @Test
+    void close_leavesTheSharedClientOpen() {
+        try (var client = HttpClient.shared()) {
+            assertEquals(200, client.sendAsync(request(), HttpResponse.BodyHandlers.discarding()).join().statusCode());
+        }
+
+        assertEquals(200, HttpClient.shared().sendAsync(request(), HttpResponse.BodyHandlers.discarding()).join().statusCode());
+    }
+
+    @Test
+    void hostOf_usesTheDefaultPortOfTheScheme() {
+        assertEquals("example.com:80", HttpClient.hostOf(URI.create("http://Example.com/movies")));
+        assertEquals("example.com:80", HttpClient.hostOf(URI.create("http://example.com:80/movies")));
+        assertEquals("example.com:443", HttpClient.hostOf(URI.create("https://example.com/movies")));
+        assertEquals("example.com:8443", HttpClient.hostOf(URI.create("https://example.com:8443/movies")));
+    }
+
+    private HttpRequest request() {
+        return HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/data")).build();
+    }
+}
@@ -0,0 +1,30 @@
+package com.moduleone.http;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    @Test
+    void bucketsCoverEveryValue() {
+        for (long value : new long[]{0, 7, 8, 15, 16, 1_000, 999_999, 5_000_000_000L, Long.MAX_VALUE}) {
+            var upperBound = LatencyHistogram.upperBound(LatencyHistogram.bucket(value));
+            assertTrue(upperBound >= value && upperBound - value <= value / 8, value + " -> " + upperBound);
+        }
+    }
+
+    @Test
+    void percentile() {
+        var latencyHistogram = new LatencyHistogram();
+        for (int millis = 1; millis <= 100; millis++) {
+            latencyHistogram.record(millis * 1_000_000L);
+        }
+
+        assertEquals(100, latencyHistogram.count());
+        var p95 = latencyHistogram.percentile(0.95);
+        assertTrue(p95 >= 95_000_000L && p95 < 95_000_000L * 9 / 8, "p95 " + p95);
+        assertEquals(0, new LatencyHistogram().percentile(0.99));
+    }
+}
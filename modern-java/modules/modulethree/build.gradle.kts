@@ -11,9 +11,44 @@ repositories {
 }
 
 dependencies {
-//    implementation(project(":modules:moduletwo"))
-//    implementation(project(":modules:moduleone"))
+    implementation(project(":modules:moduleone"))
+    // providers of DataProvider, only looked up by name at run time
+    runtimeOnly(project(":modules:moduletwo"))
+    runtimeOnly(project(":modules:modulefour"))
 
     testImplementation(platform("org.junit:junit-bom:5.9.1"))
     testImplementation("org.junit.jupiter:junit-jupiter")
 }
+
+// A runtime image holding modulethree, the modules it requires, the moduletwo DataProvider and only the JDK modules
+// those need (java.base, java.net.http and jdk.jfr), started with build/image/bin/modulethree.
+val jlink by tasks.registering(Exec::class) {
+    group = "distribution"
+    description = "Builds a jlink runtime image for modulethree."
+
+    val modulePath = files(tasks.jar, configurations.runtimeClasspath)
+    val imageDir = layout.buildDirectory.dir("image")
+    inputs.files(modulePath)
+    outputs.dir(imageDir)
+
+    // jlink links the JDK modules of its own JDK, so take the JDK 25 the modules target rather than the one running Gradle
+    executable = javaToolchains.launcherFor { languageVersion.set(JavaLanguageVersion.of(25)) }.get()
+        .metadata.installationPath.file("bin/jlink").asFile.path
+    argumentProviders.add(CommandLineArgumentProvider {
+        listOf(
+            "--module-path", modulePath.asPath,
+            // moduletwo is only bound as a service provider, which jlink does not follow without --bind-services
+            "--add-modules", "modulethree,moduletwo",
+            "--launcher", "modulethree=modulethree/com.modulethree.launcher.Module3App",
+            "--strip-debug",
+            "--no-header-files",
+            "--no-man-pages",
+            "--compress", "zip-6",
+            // without the default CDS archive of a full JDK the image starts slower than the classpath launch
+            "--generate-cds-archive",
+            "--output", imageDir.get().asFile.path,
+        )
+    })
+    // jlink refuses to write into an existing directory
+    doFirst { imageDir.get().asFile.deleteRecursively() }
+}
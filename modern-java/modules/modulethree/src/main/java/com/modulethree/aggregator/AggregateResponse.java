@@ -0,0 +1,13 @@
+package com.modulethree.aggregator;
+
+import com.moduleone.spi.ModuleData;
+
+/**
+ * The combined answer of both modules; a module that failed or missed the deadline is {@code null}.
+ */
+public record AggregateResponse(ModuleData module1, ModuleData module2) {
+
+    public boolean isComplete() {
+        return module1 != null && module2 != null;
+    }
+}
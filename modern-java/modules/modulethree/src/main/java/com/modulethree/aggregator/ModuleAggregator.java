@@ -0,0 +1,65 @@
+package com.modulethree.aggregator;
+
+import com.moduleone.spi.DataProvider;
+import com.modulethree.client.Module1Client;
+import com.modulethree.client.Module2Client;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Calls both modules concurrently, one virtual thread per call, so the aggregate latency follows the
+ * slowest module instead of their sum. A module that doesn't answer within the timeout is cancelled and
+ * left out of the response.
+ */
+public class ModuleAggregator implements AutoCloseable {
+
+    private final Module1Client module1Client;
+    private final Module2Client module2Client;
+    private final Duration timeout;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ModuleAggregator(Module1Client module1Client, Module2Client module2Client, Duration timeout) {
+        this.module1Client = module1Client;
+        this.module2Client = module2Client;
+        this.timeout = timeout;
+    }
+
+    public ModuleAggregator(DataProvider module1Provider, DataProvider module2Provider, Duration timeout) {
+        this(new Module1Client(module1Provider), new Module2Client(module2Provider), timeout);
+    }
+
+    public AggregateResponse retrieveData() {
+        var module1 = executor.submit(module1Client::retrieveData);
+        var module2 = executor.submit(module2Client::retrieveData);
+        // both calls share one deadline, waiting on the first one counts against the second
+        var deadline = System.nanoTime() + timeout.toNanos();
+        return new AggregateResponse(await(module1, deadline), await(module2, deadline));
+    }
+
+    private static <T> T await(Future<T> future, long deadline) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            future.cancel(true);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return null;
+        }
+    }
+
+    /**
+     * Stops accepting calls; calls that are still running are interrupted.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
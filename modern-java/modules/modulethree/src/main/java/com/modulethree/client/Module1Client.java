@@ -1,15 +1,17 @@
 package com.modulethree.client;
 
+import com.moduleone.spi.DataProvider;
+import com.moduleone.spi.ModuleData;
 
 public class Module1Client {
 
-//    private final Module1Service module1Service;
-//
-//    public Module1Client(Module1Service module1Service) {
-//        this.module1Service = module1Service;
-//    }
-//
-//    public Module1DTO retrieveData(){
-//        return module1Service.retrieveData();
-//    }
+    private final DataProvider module1Provider;
+
+    public Module1Client(DataProvider module1Provider) {
+        this.module1Provider = module1Provider;
+    }
+
+    public ModuleData retrieveData(){
+        return module1Provider.retrieveData();
+    }
 }
@@ -0,0 +1,17 @@
+package com.modulethree.client;
+
+import com.moduleone.spi.DataProvider;
+import com.moduleone.spi.ModuleData;
+
+public class Module2Client {
+
+    private final DataProvider module2Provider;
+
+    public Module2Client(DataProvider module2Provider) {
+        this.module2Provider = module2Provider;
+    }
+
+    public ModuleData retrieveData(){
+        return module2Provider.retrieveData();
+    }
+}
@@ -1,9 +1,21 @@
 package com.modulethree.launcher;
 
+import com.modulethree.aggregator.ModuleAggregator;
+import com.modulethree.provider.DataProviders;
+
+import java.time.Duration;
 
 public class Module3App {
 
     public static void main(String[] args) {
-
+        var dataProviders = new DataProviders();
+        System.out.println("providers : " + dataProviders.names());
+        var module1Provider = dataProviders.provider("moduleone").orElseThrow();
+        var module2Provider = dataProviders.provider("moduletwo").orElseThrow();
+        try (var aggregator = new ModuleAggregator(module1Provider, module2Provider, Duration.ofMillis(500))) {
+            var response = aggregator.retrieveData();
+            System.out.println("response : " + response);
+            System.out.println("complete : " + response.isComplete());
+        }
     }
 }
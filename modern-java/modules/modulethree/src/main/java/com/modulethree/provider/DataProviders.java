@@ -0,0 +1,45 @@
+package com.modulethree.provider;
+
+import com.moduleone.spi.DataProvider;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@link DataProvider}s found by {@link ServiceLoader}, keyed by {@link DataProvider#name()}.
+ * Discovery only loads the provider classes through {@link ServiceLoader.Provider#type()} to read their
+ * {@link DataProvider.Name}; a provider is initialized and instantiated the first time it is requested, and then reused.
+ */
+public class DataProviders {
+
+    private final Map<String, ServiceLoader.Provider<DataProvider>> providers = new LinkedHashMap<>();
+    private final Map<String, DataProvider> instances = new ConcurrentHashMap<>();
+
+    public DataProviders() {
+        this(ServiceLoader.load(DataProvider.class));
+    }
+
+    DataProviders(ServiceLoader<DataProvider> serviceLoader) {
+        serviceLoader.stream().forEach(provider -> providers.putIfAbsent(DataProvider.name(provider.type()), provider));
+    }
+
+    /**
+     * @return the names of the providers found, in discovery order
+     */
+    public Set<String> names() {
+        return Collections.unmodifiableSet(providers.keySet());
+    }
+
+    public Optional<DataProvider> provider(String name) {
+        var provider = providers.get(name);
+        if (provider == null) {
+            return Optional.empty();
+        }
+        return Optional.of(instances.computeIfAbsent(name, key -> provider.get()));
+    }
+}
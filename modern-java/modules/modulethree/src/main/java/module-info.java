@@ -1,4 +1,5 @@
-//module modulethree {
-//    requires moduletwo;
-//
-//}
\ No newline at end of file
+module modulethree {
+    requires moduleone;
+
+    uses com.moduleone.spi.DataProvider;
+}
@@ -0,0 +1,84 @@
+package com.modulethree.aggregator;
+
+import com.moduleone.spi.DataProvider;
+import com.modulethree.provider.DataProviders;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ModuleAggregatorTest {
+
+    DataProviders dataProviders = new DataProviders();
+    DataProvider module1Provider = dataProviders.provider("moduleone").orElseThrow();
+    DataProvider module2Provider = dataProviders.provider("moduletwo").orElseThrow();
+
+    @Test
+    void retrieveData() {
+        try (var aggregator = new ModuleAggregator(module1Provider, module2Provider, Duration.ofSeconds(1))) {
+            var response = aggregator.retrieveData();
+            assertTrue(response.isComplete());
+            assertEquals("Hello! This is from Module1", response.module1().name());
+            assertEquals("Hello! This is from Module2", response.module2().name());
+        }
+    }
+
+    @Test
+    void retrieveData_callsModulesConcurrently() {
+        // each call only returns once both have started, which never happens if they run one after the other
+        var bothStarted = new CountDownLatch(2);
+        DataProvider concurrentModule1Provider = () -> {
+            awaitOtherCall(bothStarted);
+            return module1Provider.retrieveData();
+        };
+        DataProvider concurrentModule2Provider = () -> {
+            awaitOtherCall(bothStarted);
+            return module2Provider.retrieveData();
+        };
+        try (var aggregator = new ModuleAggregator(concurrentModule1Provider, concurrentModule2Provider, Duration.ofSeconds(10))) {
+            var response = aggregator.retrieveData();
+            assertTrue(response.isComplete());
+        }
+    }
+
+    @Test
+    void retrieveData_partialResponseOnTimeout() throws InterruptedException {
+        var release = new CountDownLatch(1);
+        var cancelled = new CountDownLatch(1);
+        DataProvider stuckModule2Provider = () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                cancelled.countDown();
+                throw new RuntimeException(e);
+            }
+            return module2Provider.retrieveData();
+        };
+        try (var aggregator = new ModuleAggregator(module1Provider, stuckModule2Provider, Duration.ofMillis(200))) {
+            var response = aggregator.retrieveData();
+            assertFalse(response.isComplete());
+            assertEquals("Hello! This is from Module1", response.module1().name());
+            assertNull(response.module2());
+            assertTrue(cancelled.await(10, TimeUnit.SECONDS), "the timed out call was not cancelled");
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private static void awaitOtherCall(CountDownLatch bothStarted) {
+        bothStarted.countDown();
+        try {
+            if (!bothStarted.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("the other module was not called concurrently");
+            }
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -1,10 +1,17 @@
 package com.modulethree.client;
 
+import com.moduleone.service.Module1Service;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 class Module1ClientTest {
 
+    Module1Client module1Client = new Module1Client(new Module1Service());
+
     @Test
     void retrieveData() {
+        var module1DTO = module1Client.retrieveData();
+        assertEquals("Hello! This is from Module1", module1DTO.name());
     }
-}
\ No newline at end of file
+}
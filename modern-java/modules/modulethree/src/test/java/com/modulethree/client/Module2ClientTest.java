@@ -1,9 +1,17 @@
 package com.modulethree.client;
 
+import com.modulethree.provider.DataProviders;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class Module2ClientTest {
 
-    void retrieveData() {
+    Module2Client module2Client = new Module2Client(new DataProviders().provider("moduletwo").orElseThrow());
 
+    @Test
+    void retrieveData() {
+        var module2DTO = module2Client.retrieveData();
+        assertEquals("Hello! This is from Module2", module2DTO.name());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,36 @@
+package com.modulethree.provider;
+
+import com.moduleone.dtos.Module1DTO;
+import com.moduleone.service.Module1Service;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DataProvidersTest {
+
+    DataProviders dataProviders = new DataProviders();
+
+    @Test
+    void names() {
+        assertEquals(Set.of("moduleone", "moduletwo", "modulefour"), dataProviders.names());
+        assertThrows(UnsupportedOperationException.class, () -> dataProviders.names().remove("moduleone"));
+    }
+
+    @Test
+    void provider() {
+        var module1Provider = dataProviders.provider("moduleone").orElseThrow();
+        assertInstanceOf(Module1Service.class, module1Provider);
+        assertEquals("moduleone", module1Provider.name());
+        assertEquals(new Module1DTO("Hello! This is from Module1"), module1Provider.retrieveData());
+        assertSame(module1Provider, dataProviders.provider("moduleone").orElseThrow());
+        assertEquals("UnNamed", dataProviders.provider("modulefour").orElseThrow().retrieveData().name());
+        assertEquals("Hello! This is from Module2", dataProviders.provider("moduletwo").orElseThrow().retrieveData().name());
+        assertTrue(dataProviders.provider("com.example.Missing").isEmpty());
+    }
+}
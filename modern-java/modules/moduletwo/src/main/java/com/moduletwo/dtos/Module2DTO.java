@@ -1,4 +1,6 @@
 package com.moduletwo.dtos;
 
-public record Module2DTO(String name) {
+import com.moduleone.spi.ModuleData;
+
+public record Module2DTO(String name) implements ModuleData {
 }
@@ -1,9 +1,12 @@
 package com.moduletwo.service;
 
+import com.moduleone.spi.DataProvider;
 import com.moduletwo.dtos.Module2DTO;
 
-public class Module2Service {
+@DataProvider.Name("moduletwo")
+public class Module2Service implements DataProvider {
 
+    @Override
     public Module2DTO retrieveData(){
         return new Module2DTO("Hello! This is from Module2");
     }
@@ -0,0 +1,8 @@
+module moduletwo {
+    requires transitive moduleone;
+
+    exports com.moduletwo.dtos;
+    exports com.moduletwo.service;
+
+    provides com.moduleone.spi.DataProvider with com.moduletwo.service.Module2Service;
+}